@@ -1,10 +1,26 @@
 package security.service;
 
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.Getter;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import security.service.user.BulkUserLookup;
+import security.service.user.UserDetailsCache;
+import security.service.user.UserLookupBatcher;
 import transfer.contract.api.UserApi;
+import transfer.contract.exception.ClientApplicationException;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.function.Function;
 
 /**
  * Класс для получения данных о пользователях.
@@ -17,14 +33,186 @@ public class UserDetailsServiceImpl implements UserDetailsService {
      */
     private final UserApi userApi;
 
+    /**
+     * Пакетное получение пользователей, заданное приложением.
+     */
+    private final ObjectProvider<BulkUserLookup> bulkUserLookupProvider;
+
+    /**
+     * Включен ли кэш пользователей.
+     */
+    @Value("${security.user-cache.enabled:false}")
+    private boolean cacheEnabled;
+
+    /**
+     * Время жизни записи кэша в секундах.
+     */
+    @Value("${security.user-cache.ttl-seconds:60}")
+    private long cacheTtlSeconds;
+
+    /**
+     * За сколько секунд до истечения запись обновляется в фоне.
+     */
+    @Value("${security.user-cache.refresh-ahead-seconds:10}")
+    private long cacheRefreshAheadSeconds;
+
+    /**
+     * Максимальное количество записей кэша.
+     */
+    @Value("${security.user-cache.max-size:10000}")
+    private int cacheMaxSize;
+
+    /**
+     * Максимальное время ожидания пакета запросов пользователей в миллисекундах.
+     */
+    @Value("${security.user-batch.window-millis:5}")
+    private long batchWindowMillis;
+
+    /**
+     * Максимальное количество username в пакете.
+     */
+    @Value("${security.user-batch.max-size:100}")
+    private int batchMaxSize;
+
+    /**
+     * Количество потоков для пакетных вызовов.
+     */
+    @Value("${security.user-batch.pool-size:4}")
+    private int batchPoolSize;
+
+    /**
+     * Кэш пользователей, null если кэш выключен.
+     */
+    @Getter
+    private UserDetailsCache cache;
+
+    /**
+     * Исполнитель фоновых обновлений кэша.
+     */
+    private ExecutorService refreshExecutor;
+
+    /**
+     * Объединение запросов в пакеты, null если приложение не объявило {@link BulkUserLookup}.
+     */
+    @Getter
+    private UserLookupBatcher batcher;
+
+    /**
+     * Планировщик отправки пакетов.
+     */
+    private ScheduledExecutorService batchScheduler;
+
+    /**
+     * Исполнитель пакетных вызовов.
+     */
+    private ExecutorService batchExecutor;
+
+    /**
+     * Функция загрузки пользователя из удаленного сервиса.
+     */
+    private Function<String, ? extends UserDetails> loader;
+
+    /**
+     * Создать объединение запросов в пакеты, если есть пакетный сервис, и кэш пользователей, если он включен.
+     */
+    @PostConstruct
+    public void init() {
+        loader = userApi::findUserByUsername;
+        BulkUserLookup bulkUserLookup = bulkUserLookupProvider.getIfAvailable();
+        if (bulkUserLookup != null) {
+            batchScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "user-lookup-batcher");
+                thread.setDaemon(true);
+                return thread;
+            });
+            batchExecutor = Executors.newFixedThreadPool(batchPoolSize, runnable -> {
+                Thread thread = new Thread(runnable, "user-lookup-batch");
+                thread.setDaemon(true);
+                return thread;
+            });
+            batcher = new UserLookupBatcher(bulkUserLookup, Duration.ofMillis(batchWindowMillis), batchMaxSize,
+                batchScheduler, batchExecutor);
+            loader = batcher::load;
+        }
+
+        if (cacheEnabled) {
+            refreshExecutor = Executors.newFixedThreadPool(2, runnable -> {
+                Thread thread = new Thread(runnable, "user-cache-refresh");
+                thread.setDaemon(true);
+                return thread;
+            });
+            cache = new UserDetailsCache(loader, Duration.ofSeconds(cacheTtlSeconds),
+                Duration.ofSeconds(cacheRefreshAheadSeconds), cacheMaxSize, refreshExecutor);
+        }
+    }
+
+    /**
+     * Остановить фоновые обновления кэша и отправку пакетов.
+     */
+    @PreDestroy
+    public void shutdown() {
+        if (refreshExecutor != null) {
+            refreshExecutor.shutdownNow();
+        }
+
+        if (batchScheduler != null) {
+            batchScheduler.shutdownNow();
+            batchExecutor.shutdownNow();
+        }
+    }
+
     /**
      * Получить данные о пользователе по его username.
      *
      * @param username - username
      * @return данные о пользователе
+     * @throws UsernameNotFoundException если пользователь не найден,
+     *                                   в том числе когда сервис пользователей ответил ClientApplicationException
      */
     @Override
     public UserDetails loadUserByUsername(String username) {
-        return userApi.findUserByUsername(username);
+        return load(username, cache != null ? cache::get : loader);
+    }
+
+    /**
+     * Получить UserDetailsService для входа по паролю, всегда загружающий свежие данные в обход кэша.
+     * Смена пароля или блокировка учетной записи действуют сразу, а не после истечения записи кэша.
+     * Загруженные данные обновляют запись кэша.
+     *
+     * @return UserDetailsService без кэша
+     */
+    public UserDetailsService uncached() {
+        return username -> {
+            UserDetails user = load(username, loader);
+            if (cache != null) {
+                cache.put(username, user);
+            }
+
+            return user;
+        };
+    }
+
+    /**
+     * Получить данные о пользователе указанным способом.
+     *
+     * @param username - username
+     * @param source   - способ загрузки
+     * @return данные о пользователе
+     * @throws UsernameNotFoundException если пользователь не найден
+     */
+    private static UserDetails load(final String username,
+                                    final Function<String, ? extends UserDetails> source) {
+        UserDetails user;
+        try {
+            user = source.apply(username);
+        } catch (ClientApplicationException exception) {
+            throw new UsernameNotFoundException("Пользователь не найден", exception);
+        }
+
+        if (user == null) {
+            throw new UsernameNotFoundException("Пользователь не найден");
+        }
+
+        return user;
     }
 }
@@ -0,0 +1,149 @@
+package security.service.authority;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import transfer.contract.domain.user.UserRole;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Неизменяемый набор прав пользователя с битовой маской ролей.
+ * Наборы с одинаковыми правами - один общий экземпляр, поэтому все пользователи
+ * с одной ролью разделяют один список GrantedAuthority, а проверка роли - одна битовая операция.
+ * Сериализуется вместе с аутентификацией; при чтении заменяется общим экземпляром.
+ */
+public final class CompactAuthorities implements Serializable {
+    /**
+     * Версия сериализованной формы.
+     */
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Префикс ролей Spring Security.
+     */
+    private static final String ROLE_PREFIX = "ROLE_";
+
+    /**
+     * Роли по названию, с префиксом и без.
+     */
+    private static final Map<String, UserRole> ROLES_BY_NAME = rolesByName();
+
+    /**
+     * Общие экземпляры наборов по списку названий прав.
+     */
+    private static final Map<List<String>, CompactAuthorities> INTERNED = new ConcurrentHashMap<>();
+
+    /**
+     * Общие экземпляры прав по названию.
+     */
+    private static final Map<String, GrantedAuthority> AUTHORITIES = new ConcurrentHashMap<>();
+
+    /**
+     * Права.
+     */
+    private final List<GrantedAuthority> authorities;
+
+    /**
+     * Битовая маска ролей по {@link UserRole#ordinal()}.
+     */
+    private final long roleMask;
+
+    /**
+     * Создать набор прав.
+     *
+     * @param authorities - права
+     * @param roleMask    - битовая маска ролей
+     */
+    private CompactAuthorities(final List<GrantedAuthority> authorities,
+                               final long roleMask) {
+        this.authorities = authorities;
+        this.roleMask = roleMask;
+    }
+
+    /**
+     * Получить общий набор для прав пользователя.
+     *
+     * @param authorities - права пользователя
+     * @return общий неизменяемый набор прав
+     */
+    public static CompactAuthorities of(final Collection<? extends GrantedAuthority> authorities) {
+        List<String> names = new ArrayList<>(authorities.size());
+        for (GrantedAuthority authority : authorities) {
+            names.add(authority.getAuthority());
+        }
+
+        CompactAuthorities interned = INTERNED.get(names);
+        if (interned != null) {
+            return interned;
+        }
+
+        List<GrantedAuthority> shared = new ArrayList<>(names.size());
+        long roleMask = 0;
+        for (String name : names) {
+            shared.add(AUTHORITIES.computeIfAbsent(name, SimpleGrantedAuthority::new));
+            UserRole role = ROLES_BY_NAME.get(name);
+            if (role != null) {
+                roleMask |= 1L << role.ordinal();
+            }
+        }
+
+        return INTERNED.computeIfAbsent(List.copyOf(names),
+            key -> new CompactAuthorities(List.copyOf(shared), roleMask));
+    }
+
+    /**
+     * Получить права.
+     *
+     * @return неизменяемый список прав
+     */
+    public List<GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    /**
+     * Есть ли у пользователя роль.
+     *
+     * @param role - роль
+     * @return true, если роль есть
+     */
+    public boolean hasRole(final UserRole role) {
+        return (roleMask & (1L << role.ordinal())) != 0;
+    }
+
+    /**
+     * Заменить прочитанный при десериализации набор общим экземпляром.
+     *
+     * @return общий набор с теми же правами
+     */
+    @Serial
+    private Object readResolve() {
+        return of(authorities);
+    }
+
+    /**
+     * Построить индекс ролей по названию.
+     *
+     * @return роли по названию, с префиксом ROLE_ и без
+     */
+    private static Map<String, UserRole> rolesByName() {
+        UserRole[] roles = UserRole.values();
+        if (roles.length > Long.SIZE) {
+            throw new IllegalStateException("Количество ролей превышает размер битовой маски");
+        }
+
+        Map<String, UserRole> rolesByName = new ConcurrentHashMap<>();
+        for (UserRole role : roles) {
+            rolesByName.put(role.name(), role);
+            rolesByName.put(ROLE_PREFIX + role.name(), role);
+        }
+
+        return Map.copyOf(rolesByName);
+    }
+}
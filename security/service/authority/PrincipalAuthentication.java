@@ -0,0 +1,135 @@
+package security.service.authority;
+
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+import transfer.contract.domain.user.UserRole;
+
+import java.io.Serial;
+import java.util.Collection;
+import java.util.Objects;
+
+/**
+ * Аутентификация по JWT-токену, создается на каждый запрос.
+ * Права берутся из общего набора {@link CompactAuthorities} и не копируются,
+ * поэтому на запрос создается только сам объект аутентификации.
+ */
+public final class PrincipalAuthentication extends AbstractAuthenticationToken {
+    /**
+     * Версия сериализованной формы.
+     */
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Данные пользователя.
+     */
+    private final UserDetails principal;
+
+    /**
+     * Права пользователя.
+     */
+    private final CompactAuthorities compactAuthorities;
+
+    /**
+     * Создать аутентификацию.
+     * Права не передаются в AbstractAuthenticationToken, чтобы не создавать копию списка прав;
+     * поэтому equals и hashCode реализованы здесь, а не в AbstractAuthenticationToken.
+     *
+     * @param principal          - данные пользователя
+     * @param compactAuthorities - права пользователя
+     */
+    private PrincipalAuthentication(final UserDetails principal,
+                                    final CompactAuthorities compactAuthorities) {
+        super(null);
+        this.principal = principal;
+        this.compactAuthorities = compactAuthorities;
+        super.setAuthenticated(true);
+    }
+
+    /**
+     * Создать аутентификацию для пользователя.
+     *
+     * @param principal - данные пользователя
+     * @return аутентификация
+     */
+    public static PrincipalAuthentication of(final UserDetails principal) {
+        return new PrincipalAuthentication(principal, CompactAuthorities.of(principal.getAuthorities()));
+    }
+
+    /**
+     * Есть ли у пользователя роль.
+     *
+     * @param role - роль
+     * @return true, если роль есть
+     */
+    public boolean hasRole(final UserRole role) {
+        return compactAuthorities.hasRole(role);
+    }
+
+    /**
+     * Получить данные пользователя.
+     *
+     * @return данные пользователя
+     */
+    @Override
+    public UserDetails getPrincipal() {
+        return principal;
+    }
+
+    /**
+     * Учетные данные не хранятся: аутентификация выполнена по токену.
+     *
+     * @return null
+     */
+    @Override
+    public Object getCredentials() {
+        return null;
+    }
+
+    /**
+     * Получить права.
+     *
+     * @return общий неизменяемый список прав
+     */
+    @Override
+    public Collection<GrantedAuthority> getAuthorities() {
+        return compactAuthorities.getAuthorities();
+    }
+
+    /**
+     * Сравнить аутентификации по пользователю, правам, данным запроса и признаку аутентификации.
+     *
+     * @param obj - другой объект
+     * @return true, если аутентификации совпадают
+     */
+    @Override
+    public boolean equals(final Object obj) {
+        if (this == obj) {
+            return true;
+        }
+
+        return obj instanceof PrincipalAuthentication other
+            && isAuthenticated() == other.isAuthenticated()
+            && compactAuthorities.equals(other.compactAuthorities)
+            && principal.equals(other.principal)
+            && Objects.equals(getDetails(), other.getDetails());
+    }
+
+    /**
+     * Хеш-код по тем же полям, что и equals.
+     *
+     * @return хеш-код
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(principal, compactAuthorities, getDetails(), isAuthenticated());
+    }
+
+    /**
+     * Учетные данные не хранятся, а данные пользователя общие с кэшем пользователей, поэтому не очищаются.
+     */
+    @Override
+    public void eraseCredentials() {
+    }
+}
@@ -0,0 +1,134 @@
+package security.service.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+import org.springframework.security.crypto.scrypt.SCryptPasswordEncoder;
+import security.service.metrics.SecurityMetrics;
+import security.service.password.BoundedPasswordEncoder;
+import security.service.password.PasswordWorkFactorCalibrator;
+import security.service.password.UnprefixedBcryptPasswordEncoder;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Конфигурация шифрования паролей, общая для servlet- и reactive-приложений.
+ */
+@Slf4j
+@Configuration
+public class PasswordEncoderConfiguration {
+    /**
+     * Идентификатор bcrypt в DelegatingPasswordEncoder.
+     */
+    private static final String BCRYPT = "bcrypt";
+
+    /**
+     * Алгоритм для новых хешей: bcrypt, argon2, scrypt или pbkdf2.
+     * Хеши bcrypt пишутся без префикса, как их хранит user-service; остальные алгоритмы пишут префикс {id},
+     * поэтому переход на них требует, чтобы все проверяющие пароли сервисы понимали формат {id}хеш.
+     */
+    @Value("${security.password.encoder:bcrypt}")
+    private String encoderId;
+
+    /**
+     * Стоимость bcrypt, если калибровка выключена.
+     */
+    @Value("${security.password.bcrypt.strength:10}")
+    private int bcryptStrength;
+
+    /**
+     * Минимальная стоимость bcrypt, ниже которой калибровка не опускается.
+     */
+    @Value("${security.password.bcrypt.min-strength:10}")
+    private int bcryptMinStrength;
+
+    /**
+     * Целевое время хеширования в миллисекундах для калибровки bcrypt, 0 - без калибровки.
+     */
+    @Value("${security.password.bcrypt.target-millis:0}")
+    private long bcryptTargetMillis;
+
+    /**
+     * Количество потоков для хеширования паролей, 0 - по числу процессоров.
+     */
+    @Value("${security.password.hashing.pool-size:0}")
+    private int poolSize;
+
+    /**
+     * Максимальное количество ожидающих хеширования запросов.
+     */
+    @Value("${security.password.hashing.queue-capacity:64}")
+    private int queueCapacity;
+
+    /**
+     * Значение Retry-After в секундах при переполнении пула.
+     */
+    @Value("${security.password.hashing.retry-after-seconds:1}")
+    private long retryAfterSeconds;
+
+    /**
+     * Максимальное время ожидания проверки пароля в миллисекундах, включая время в очереди.
+     */
+    @Value("${security.password.hashing.timeout-millis:5000}")
+    private long timeoutMillis;
+
+    /**
+     * Бин для шифрования паролей пользователей.
+     * Новые хеши создаются алгоритмом security.password.encoder с префиксом {id},
+     * старые хеши bcrypt без префикса продолжают проверяться.
+     * Хеширование выполняется на отдельном пуле ограниченного размера с ограниченным временем ожидания.
+     *
+     * @param metrics - метрики security
+     * @return PasswordEncoder
+     */
+    @Bean
+    public PasswordEncoder passwordEncoder(SecurityMetrics metrics) {
+        var passwordEncoder = new BoundedPasswordEncoder(delegatingPasswordEncoder(),
+            poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors(),
+            queueCapacity, retryAfterSeconds, timeoutMillis, metrics);
+        metrics.bindPasswordEncoder(passwordEncoder);
+
+        return passwordEncoder;
+    }
+
+    /**
+     * Создать PasswordEncoder, проверяющий хеши всех поддерживаемых алгоритмов.
+     * Для bcrypt новые хеши пишутся без префикса, для остальных алгоритмов - с префиксом {id}.
+     *
+     * @return PasswordEncoder
+     */
+    private PasswordEncoder delegatingPasswordEncoder() {
+        int strength = bcryptStrength;
+        if (bcryptTargetMillis > 0) {
+            strength = PasswordWorkFactorCalibrator.calibrateBcryptStrength(
+                Duration.ofMillis(bcryptTargetMillis), bcryptMinStrength);
+            log.info("Стоимость bcrypt откалибрована под {} мс: {}", bcryptTargetMillis, strength);
+        }
+
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(strength);
+        Map<String, PasswordEncoder> encoders = Map.of(
+            BCRYPT, bcrypt,
+            "argon2", Argon2PasswordEncoder.defaultsForSpringSecurity_v5_8(),
+            "scrypt", SCryptPasswordEncoder.defaultsForSpringSecurity_v5_8(),
+            "pbkdf2", Pbkdf2PasswordEncoder.defaultsForSpringSecurity_v5_8()
+        );
+        if (!encoders.containsKey(encoderId)) {
+            throw new IllegalStateException("Неизвестный алгоритм security.password.encoder: " + encoderId);
+        }
+
+        var delegatingPasswordEncoder = new DelegatingPasswordEncoder(encoderId, encoders);
+        delegatingPasswordEncoder.setDefaultPasswordEncoderForMatches(bcrypt);
+        if (BCRYPT.equals(encoderId)) {
+            return new UnprefixedBcryptPasswordEncoder(bcrypt, delegatingPasswordEncoder);
+        }
+
+        return delegatingPasswordEncoder;
+    }
+}
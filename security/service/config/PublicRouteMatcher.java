@@ -0,0 +1,162 @@
+package security.service.config;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Проверка, относится ли путь запроса к публичным маршрутам.
+ * Маршруты один раз компилируются в дерево по сегментам пути, поэтому проверка
+ * не зависит от количества маршрутов и не требует разбора шаблонов на каждый запрос.
+ * Общая для правил авторизации и фильтров JWT-аутентификации.
+ * Поддерживаются сегменты-литералы, "*" (ровно один сегмент) и "**" в конце шаблона (любой остаток пути).
+ */
+@Component
+public class PublicRouteMatcher {
+    /**
+     * Публичные маршруты. Если не заданы, используются {@link SecurityRoutes#PUBLIC_ROUTES}.
+     */
+    @Value("${security.public-routes:}")
+    private String[] routes;
+
+    /**
+     * Корень дерева маршрутов.
+     */
+    private final Node root = new Node();
+
+    /**
+     * Скомпилировать маршруты.
+     */
+    @PostConstruct
+    public void init() {
+        if (routes == null || routes.length == 0) {
+            routes = SecurityRoutes.PUBLIC_ROUTES;
+        }
+
+        for (String route : routes) {
+            add(route.trim());
+        }
+    }
+
+    /**
+     * Относится ли путь к публичным маршрутам.
+     *
+     * @param path - путь запроса без context path
+     * @return true, если путь публичный
+     */
+    public boolean matches(final String path) {
+        if (path == null || path.isEmpty() || path.charAt(0) != '/') {
+            return false;
+        }
+
+        return matches(root, path, 1);
+    }
+
+    /**
+     * Получить публичные маршруты.
+     *
+     * @return публичные маршруты
+     */
+    public String[] getRoutes() {
+        return routes.clone();
+    }
+
+    /**
+     * Добавить шаблон маршрута в дерево.
+     *
+     * @param route - шаблон маршрута
+     */
+    private void add(final String route) {
+        if (!route.startsWith("/")) {
+            throw new IllegalStateException("Публичный маршрут должен начинаться с '/': " + route);
+        }
+
+        String[] segments = route.substring(1).split("/", -1);
+        Node node = root;
+        for (int i = 0; i < segments.length; i++) {
+            String segment = segments[i];
+            if ("**".equals(segment)) {
+                if (i != segments.length - 1) {
+                    throw new IllegalStateException("'**' допускается только в конце маршрута: " + route);
+                }
+
+                node.anyRest = true;
+                return;
+            }
+
+            if ("*".equals(segment)) {
+                if (node.anySegment == null) {
+                    node.anySegment = new Node();
+                }
+
+                node = node.anySegment;
+            } else if (segment.indexOf('*') >= 0 || segment.indexOf('{') >= 0 || segment.indexOf('?') >= 0) {
+                throw new IllegalStateException("Неподдерживаемый шаблон в публичном маршруте: " + route);
+            } else {
+                node = node.children.computeIfAbsent(segment, key -> new Node());
+            }
+        }
+
+        node.terminal = true;
+    }
+
+    /**
+     * Проверить остаток пути от узла дерева.
+     *
+     * @param node  - узел дерева
+     * @param path  - путь
+     * @param start - начало текущего сегмента в пути
+     * @return true, если остаток пути соответствует маршруту
+     */
+    private static boolean matches(final Node node,
+                                   final String path,
+                                   final int start) {
+        if (node.anyRest) {
+            return true;
+        }
+
+        if (start > path.length()) {
+            return node.terminal;
+        }
+
+        int end = path.indexOf('/', start);
+        if (end < 0) {
+            end = path.length();
+        }
+
+        Node child = node.children.get(path.substring(start, end));
+        if (child != null && matches(child, path, end + 1)) {
+            return true;
+        }
+
+        return node.anySegment != null && end > start && matches(node.anySegment, path, end + 1);
+    }
+
+    /**
+     * Узел дерева маршрутов.
+     */
+    private static final class Node {
+        /**
+         * Дочерние узлы по литералу сегмента.
+         */
+        private final Map<String, Node> children = new HashMap<>();
+
+        /**
+         * Дочерний узел для "*".
+         */
+        private Node anySegment;
+
+        /**
+         * Заканчивается ли на этом узле маршрут.
+         */
+        private boolean terminal;
+
+        /**
+         * Соответствует ли маршруту любой остаток пути ("**").
+         */
+        private boolean anyRest;
+    }
+}
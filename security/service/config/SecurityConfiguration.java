@@ -2,8 +2,10 @@ package security.service.config;
 
 import lombok.RequiredArgsConstructor;
 import lombok.SneakyThrows;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
@@ -12,20 +14,27 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.web.util.UrlPathHelper;
 import security.service.UserDetailsServiceImpl;
 import security.service.filter.ExceptionHandlerFilter;
 import security.service.filter.JwtAuthenticationFilter;
+import security.service.login.ClientIpResolver;
+import security.service.login.LoginThrottle;
+import security.service.login.ThrottlingAuthenticationProvider;
+import security.service.password.BoundedPasswordEncoder;
+import security.service.password.PasswordUpgradeService;
 
 /**
- * Конфигурация Spring Security.
+ * Конфигурация Spring Security для servlet-приложений.
  */
 @Configuration
 @EnableWebSecurity
+@ImportRuntimeHints(SecurityRuntimeHints.class)
 @RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class SecurityConfiguration {
     /**
      * Фильтр JWT-аутентификации.
@@ -42,6 +51,31 @@ public class SecurityConfiguration {
      */
     private final UserDetailsServiceImpl userDetailsService;
 
+    /**
+     * Класс для шифрования паролей пользователей.
+     */
+    private final PasswordEncoder passwordEncoder;
+
+    /**
+     * Сервис перехеширования устаревших хешей паролей.
+     */
+    private final PasswordUpgradeService passwordUpgradeService;
+
+    /**
+     * Ограничение частоты попыток входа.
+     */
+    private final LoginThrottle loginThrottle;
+
+    /**
+     * Определение IP клиента за доверенными прокси.
+     */
+    private final ClientIpResolver clientIpResolver;
+
+    /**
+     * Проверка публичных маршрутов.
+     */
+    private final PublicRouteMatcher publicRouteMatcher;
+
     /**
      * Конфигурация httpSecurity
      *
@@ -55,7 +89,8 @@ public class SecurityConfiguration {
             .csrf(AbstractHttpConfigurer::disable)
             .cors(AbstractHttpConfigurer::disable)
             .authorizeHttpRequests(registry -> registry
-                .requestMatchers("/api/v1/auth/**", "/api/v1/user/**", "/swagger-ui/**", "/v3/api-docs/**")
+                .requestMatchers(request -> publicRouteMatcher.matches(
+                    UrlPathHelper.defaultInstance.getPathWithinApplication(request)))
                 .permitAll()
                 .anyRequest()
                 .authenticated())
@@ -69,16 +104,23 @@ public class SecurityConfiguration {
 
     /**
      * Бин AuthenticationProvider.
+     * Частота попыток входа ограничивается до хеширования пароля и обращения к сервису пользователей.
+     * Пользователь загружается в обход кэша, чтобы смена пароля или блокировка действовали сразу.
+     * Перехеширование устаревшего хеша после успешного входа не проходит через ограничение пула хеширования.
      *
      * @return AuthenticationProvider
      */
     @Bean
     public AuthenticationProvider authenticationProvider() {
         DaoAuthenticationProvider authenticationProvider = new DaoAuthenticationProvider();
-        authenticationProvider.setUserDetailsService(userDetailsService);
-        authenticationProvider.setPasswordEncoder(passwordEncoder());
+        authenticationProvider.setUserDetailsService(userDetailsService.uncached());
+        authenticationProvider.setPasswordEncoder(passwordEncoder instanceof BoundedPasswordEncoder bounded
+            ? bounded.forLogin() : passwordEncoder);
+        if (passwordUpgradeService.isEnabled()) {
+            authenticationProvider.setUserDetailsPasswordService(passwordUpgradeService);
+        }
 
-        return authenticationProvider;
+        return new ThrottlingAuthenticationProvider(authenticationProvider, loginThrottle, clientIpResolver);
     }
 
     /**
@@ -91,14 +133,4 @@ public class SecurityConfiguration {
     public AuthenticationManager authenticationManager(AuthenticationConfiguration configuration) {
         return configuration.getAuthenticationManager();
     }
-
-    /**
-     * Бин для шифрования паролей пользователей.
-     *
-     * @return BCryptPasswordEncoder
-     */
-    @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
-    }
 }
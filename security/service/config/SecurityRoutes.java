@@ -0,0 +1,19 @@
+package security.service.config;
+
+/**
+ * Маршруты, доступные без аутентификации.
+ */
+public final class SecurityRoutes {
+    /**
+     * Публичные маршруты.
+     */
+    public static final String[] PUBLIC_ROUTES = {
+        "/api/v1/auth/**", "/api/v1/user/**", "/swagger-ui/**", "/v3/api-docs/**"
+    };
+
+    /**
+     * Utility-класс.
+     */
+    private SecurityRoutes() {
+    }
+}
@@ -0,0 +1,90 @@
+package security.service.config;
+
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.util.ClassUtils;
+import security.service.jwt.introspection.TokenIntrospection;
+import security.service.jwt.refresh.TokenPair;
+import transfer.contract.exception.ApplicationException;
+import transfer.contract.exception.ClientApplicationException;
+
+import java.util.List;
+
+/**
+ * Подсказки для Spring AOT и native-image.
+ * jjwt создает свои реализации и сериализаторы через рефлексию и ServiceLoader,
+ * а тела ответов об ошибках и DTO модуля сериализуются Jackson.
+ */
+public class SecurityRuntimeHints implements RuntimeHintsRegistrar {
+    /**
+     * Классы jjwt, создаваемые через рефлексию.
+     */
+    private static final List<String> JJWT_REFLECTIVE_TYPES = List.of(
+        "io.jsonwebtoken.impl.DefaultJwtBuilder",
+        "io.jsonwebtoken.impl.DefaultJwtParserBuilder",
+        "io.jsonwebtoken.impl.DefaultJwtParser",
+        "io.jsonwebtoken.impl.DefaultClaims",
+        "io.jsonwebtoken.impl.DefaultHeader",
+        "io.jsonwebtoken.impl.DefaultJwsHeader",
+        "io.jsonwebtoken.impl.compression.DeflateCompressionCodec",
+        "io.jsonwebtoken.impl.compression.GzipCompressionCodec",
+        "io.jsonwebtoken.impl.crypto.MacProvider",
+        "io.jsonwebtoken.impl.crypto.RsaProvider",
+        "io.jsonwebtoken.impl.crypto.EllipticCurveProvider"
+    );
+
+    /**
+     * Сериализаторы jjwt, загружаемые через ServiceLoader.
+     */
+    private static final List<String> JJWT_SERVICE_TYPES = List.of(
+        "io.jsonwebtoken.jackson.io.JacksonSerializer",
+        "io.jsonwebtoken.jackson.io.JacksonDeserializer",
+        "io.jsonwebtoken.gson.io.GsonSerializer",
+        "io.jsonwebtoken.gson.io.GsonDeserializer",
+        "io.jsonwebtoken.orgjson.io.OrgJsonSerializer",
+        "io.jsonwebtoken.orgjson.io.OrgJsonDeserializer"
+    );
+
+    /**
+     * Зарегистрировать подсказки.
+     *
+     * @param hints       - подсказки
+     * @param classLoader - загрузчик классов
+     */
+    @Override
+    public void registerHints(final RuntimeHints hints,
+                              final ClassLoader classLoader) {
+        hints.resources().registerPattern("META-INF/services/io.jsonwebtoken.io.*");
+
+        registerIfPresent(hints, classLoader, JJWT_REFLECTIVE_TYPES,
+            MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_DECLARED_METHODS);
+        registerIfPresent(hints, classLoader, JJWT_SERVICE_TYPES,
+            MemberCategory.INVOKE_DECLARED_CONSTRUCTORS);
+
+        new BindingReflectionHintsRegistrar().registerReflectionHints(hints.reflection(),
+            ClientApplicationException.class, ApplicationException.class,
+            TokenIntrospection.class, TokenPair.class);
+    }
+
+    /**
+     * Зарегистрировать рефлексию для классов, которые есть в classpath.
+     *
+     * @param hints       - подсказки
+     * @param classLoader - загрузчик классов
+     * @param typeNames   - названия классов
+     * @param categories  - доступные члены классов
+     */
+    private static void registerIfPresent(final RuntimeHints hints,
+                                          final ClassLoader classLoader,
+                                          final List<String> typeNames,
+                                          final MemberCategory... categories) {
+        for (String typeName : typeNames) {
+            if (ClassUtils.isPresent(typeName, classLoader)) {
+                hints.reflection().registerType(TypeReference.of(typeName), categories);
+            }
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package security.service.filter;
+
+/**
+ * Режим построения аутентификации в {@link JwtAuthenticationFilter}.
+ */
+public enum AuthenticationMode {
+    /**
+     * Данные пользователя запрашиваются в сервисе пользователей.
+     */
+    LOOKUP,
+
+    /**
+     * Данные пользователя берутся из claims токена без обращения к сервису пользователей.
+     * Для токенов без нужных claims используется LOOKUP.
+     */
+    CLAIMS
+}
@@ -1,33 +1,79 @@
 package security.service.filter;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import io.jsonwebtoken.JwtException;
+import jakarta.annotation.PostConstruct;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
-import transfer.contract.exception.ApplicationException;
-import transfer.contract.exception.BaseErrorCode;
-import transfer.contract.exception.ClientApplicationException;
+import security.service.metrics.SecurityMetrics;
+import security.service.util.RateLimitedLog;
+import security.service.util.RetryLaterException;
 
 /**
  * Фильтр для обработки исключений, возникающий в фильтрах Spring.
+ * Тела ответов сериализованы заранее, логирование ограничено по частоте.
  */
 @Component
 @RequiredArgsConstructor
 @Slf4j
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class ExceptionHandlerFilter extends OncePerRequestFilter {
     /**
-     * Класс для записи ApplicationError в JSON-формат.
+     * Заранее сериализованные ответы об ошибках.
      */
-    private final ObjectMapper objectMapper;
+    private final JwtErrorResponses errorResponses;
+
+    /**
+     * Метрики security.
+     */
+    private final SecurityMetrics metrics;
+
+    /**
+     * Максимальное количество сообщений одного вида в логе за интервал.
+     */
+    @Value("${security.error-log.max-per-interval:20}")
+    private int logMaxPerInterval;
+
+    /**
+     * Интервал ограничения логирования в секундах.
+     */
+    @Value("${security.error-log.interval-seconds:60}")
+    private long logIntervalSeconds;
+
+    /**
+     * Ограничение логирования ошибок JWT.
+     */
+    private RateLimitedLog jwtErrorLog;
+
+    /**
+     * Ограничение логирования отклоненных запросов.
+     */
+    private RateLimitedLog rejectionLog;
+
+    /**
+     * Ограничение логирования непредвиденных ошибок.
+     */
+    private RateLimitedLog internalErrorLog;
+
+    /**
+     * Создать ограничения логирования.
+     */
+    @PostConstruct
+    public void init() {
+        jwtErrorLog = new RateLimitedLog(log, "JwtException", logMaxPerInterval, logIntervalSeconds);
+        rejectionLog = new RateLimitedLog(log, "RetryLaterException", logMaxPerInterval, logIntervalSeconds);
+        internalErrorLog = new RateLimitedLog(log, "Exception", logMaxPerInterval, logIntervalSeconds);
+    }
 
     /**
      * Метод для обработки исключений.
@@ -44,23 +90,53 @@ public class ExceptionHandlerFilter extends OncePerRequestFilter {
         try {
             filterChain.doFilter(request, response);
         } catch (JwtException exception) {
-            log.error("Поймано JwtException с сообщением: {}", exception.getMessage());
+            metrics.recordError(exception);
+            if (jwtErrorLog.tryAcquire()) {
+                log.warn("Поймано {} с сообщением: {}", exception.getClass().getSimpleName(),
+                    exception.getMessage());
+            }
 
-            response.setHeader(HttpHeaders.CONTENT_TYPE, "application/json");
-            response.setStatus(HttpStatus.BAD_REQUEST.value());
-            response.getWriter().write(objectMapper
-                .writeValueAsString(new ClientApplicationException(BaseErrorCode.WRONG_JWT_TOKEN,
-                    "Получен невалидный JWT-токен в Authorization-хедере")));
+            ServletResponses.writeJson(response, HttpStatus.BAD_REQUEST.value(),
+                errorResponses.getInvalidTokenBody());
         } catch (Exception exception) {
-            log.error("Поймано {} с сообщением: {}", exception.getClass().getSimpleName(),
-                exception.getMessage());
-
-            response.setHeader(HttpHeaders.CONTENT_TYPE, "application/json");
-            response.setStatus(HttpStatus.INTERNAL_SERVER_ERROR.value());
-            response.getWriter().write(objectMapper
-                .writeValueAsString(new ApplicationException(BaseErrorCode.INTERNAL_ERROR,
-                    String.format("Произошло исключение %s на сервере с сообщением: %s",
-                        exception.getClass().getSimpleName(), exception.getMessage()))));
+            RetryLaterException rejectedException = findRetryLaterException(exception);
+            if (rejectedException != null) {
+                metrics.recordError(rejectedException);
+                if (rejectionLog.tryAcquire()) {
+                    log.warn("Запрос отклонен: {}", rejectedException.getReason());
+                }
+
+                response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(rejectedException.getRetryAfterSeconds()));
+                ServletResponses.writeJson(response, rejectedException.getStatusCode().value(),
+                    errorResponses.getRetryLaterBody(rejectedException));
+                return;
+            }
+
+            metrics.recordError(exception);
+            if (internalErrorLog.tryAcquire()) {
+                log.error("Поймано {} с сообщением: {}", exception.getClass().getSimpleName(),
+                    exception.getMessage());
+            }
+
+            ServletResponses.writeJson(response, HttpStatus.INTERNAL_SERVER_ERROR.value(),
+                errorResponses.getInternalErrorBody());
+        }
+    }
+
+    /**
+     * Найти в цепочке причин исключение об отклонении запроса с Retry-After.
+     * Исключения из контроллеров приходят в фильтр обернутыми в ServletException.
+     *
+     * @param exception - исключение
+     * @return найденное исключение или null
+     */
+    private static RetryLaterException findRetryLaterException(final Throwable exception) {
+        for (Throwable current = exception; current != null; current = current.getCause()) {
+            if (current instanceof RetryLaterException rejectedException) {
+                return rejectedException;
+            }
         }
+
+        return null;
     }
 }
@@ -1,28 +1,41 @@
 package security.service.filter;
 
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.SneakyThrows;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.lang.NonNull;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.web.authentication.WebAuthenticationDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.UrlPathHelper;
 import security.service.UserDetailsServiceImpl;
+import security.service.authority.PrincipalAuthentication;
+import security.service.config.PublicRouteMatcher;
+import security.service.jwt.JwtToken;
 import security.service.jwt.JwtTokenExtractor;
+import security.service.jwt.JwtTokenPreValidator;
 import security.service.jwt.JwtTokenValidator;
+import security.service.jwt.JwtUserClaims;
+import security.service.metrics.AuthenticationOutcome;
+import security.service.metrics.AuthenticationPhase;
+import security.service.metrics.SecurityMetrics;
 
 /**
  * Фильтр для JWT-аутентификации.
  */
 @Component
 @RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
     /**
      * Префикс Authorization-хедера.
@@ -39,11 +52,69 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
      */
     private final JwtTokenValidator tokenValidator;
 
+    /**
+     * Класс для предварительной проверки структуры токенов.
+     */
+    private final JwtTokenPreValidator tokenPreValidator;
+
+    /**
+     * Заранее сериализованные ответы об ошибках.
+     */
+    private final JwtErrorResponses errorResponses;
+
     /**
      * Класс для получения данных о пользователях.
      */
     private final UserDetailsServiceImpl userDetailsService;
 
+    /**
+     * Класс для получения данных пользователя из claims токена.
+     */
+    private final JwtUserClaims userClaims;
+
+    /**
+     * Метрики security.
+     */
+    private final SecurityMetrics metrics;
+
+    /**
+     * Проверка публичных маршрутов.
+     */
+    private final PublicRouteMatcher publicRouteMatcher;
+
+    /**
+     * Режим построения аутентификации.
+     */
+    @Value("${jwt.authentication-mode:LOOKUP}")
+    private AuthenticationMode authenticationMode;
+
+    /**
+     * Пропускать ли фильтр на публичных маршрутах.
+     * На публичных маршрутах токен не проверяется, и Security-контекст не заполняется.
+     */
+    @Value("${jwt.filter.skip-public-routes:true}")
+    private boolean skipPublicRoutes;
+
+    /**
+     * Добавлять ли к аутентификации WebAuthenticationDetails запроса (адрес клиента и сессия).
+     * Отключение экономит построение WebAuthenticationDetails на каждый запрос.
+     */
+    @Value("${jwt.authentication.include-details:true}")
+    private boolean includeDetails;
+
+    /**
+     * Не применять фильтр к публичным маршрутам:
+     * на них не выполняется ни проверка подписи, ни обращение к сервису пользователей.
+     *
+     * @param request - запрос
+     * @return true, если фильтр не нужен
+     */
+    @Override
+    protected boolean shouldNotFilter(final @NonNull HttpServletRequest request) {
+        return skipPublicRoutes
+            && publicRouteMatcher.matches(UrlPathHelper.defaultInstance.getPathWithinApplication(request));
+    }
+
     /**
      * Метод для фильтрации запросов по JWT-токенам.
      *
@@ -56,29 +127,102 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     protected void doFilterInternal(final @NonNull HttpServletRequest request,
                                     final @NonNull HttpServletResponse response,
                                     final @NonNull FilterChain filterChain) {
+        long start = metrics.start();
         String authorizationHeader = request.getHeader(HttpHeaders.AUTHORIZATION);
         if (authorizationHeader == null || !authorizationHeader.startsWith(BEARER_PREFIX)) {
             filterChain.doFilter(request, response);
             return;
         }
 
-        String token = authorizationHeader.substring(BEARER_PREFIX.length());
-        String username = tokenExtractor.extractUsername(token);
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-            if (tokenValidator.isValid(token, userDetails)) {
-                var authenticationToken = new UsernamePasswordAuthenticationToken(
-                    userDetails, null, userDetails.getAuthorities()
-                );
+        String rawToken = authorizationHeader.substring(BEARER_PREFIX.length());
+        boolean wellFormed = tokenPreValidator.isWellFormed(rawToken);
+        metrics.recordPhase(AuthenticationPhase.HEADER_PARSE, start);
+        if (!wellFormed) {
+            metrics.recordOutcome(AuthenticationOutcome.MALFORMED);
+            ServletResponses.writeJson(response, HttpStatus.BAD_REQUEST.value(), errorResponses.getInvalidTokenBody());
+            return;
+        }
+
+        JwtToken token = parseToken(rawToken);
+        if (token == null) {
+            ServletResponses.writeJson(response, HttpStatus.BAD_REQUEST.value(), errorResponses.getInvalidTokenBody());
+            return;
+        }
 
-                WebAuthenticationDetails details = new WebAuthenticationDetailsSource()
-                    .buildDetails(request);
-                authenticationToken.setDetails(details);
+        String username = token.getSubject();
+        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+            start = metrics.start();
+            UserDetails userDetails = resolveUser(token);
+            metrics.recordPhase(AuthenticationPhase.USER_LOOKUP, start);
+            if (userDetails == null) {
+                metrics.recordOutcome(AuthenticationOutcome.USER_NOT_FOUND);
+            } else if (tokenValidator.isValid(token, userDetails)) {
+                start = metrics.start();
+                PrincipalAuthentication authentication = PrincipalAuthentication.of(userDetails);
+                if (includeDetails) {
+                    authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                }
 
-                SecurityContextHolder.getContext().setAuthentication(authenticationToken);
+                SecurityContextHolder.getContext().setAuthentication(authentication);
+                metrics.recordPhase(AuthenticationPhase.CONTEXT_POPULATION, start);
+                metrics.recordOutcome(AuthenticationOutcome.VALID);
+            } else {
+                metrics.recordOutcome(AuthenticationOutcome.REJECTED);
             }
         }
 
         filterChain.doFilter(request, response);
     }
+
+    /**
+     * Разобрать токен и проверить подпись, фиксируя время и причину отказа.
+     * Отклоненный токен не пробрасывается дальше по цепочке фильтров: ответ 400 пишется сразу,
+     * так же как для токенов, не прошедших предварительную проверку.
+     *
+     * @param rawToken - токен
+     * @return разобранный токен или null, если токен отклонен
+     */
+    private JwtToken parseToken(final String rawToken) {
+        long start = metrics.start();
+        try {
+            return tokenExtractor.parse(rawToken);
+        } catch (JwtException exception) {
+            metrics.recordOutcome(AuthenticationOutcome.of(exception));
+            metrics.recordError(exception);
+            return null;
+        } finally {
+            metrics.recordPhase(AuthenticationPhase.SIGNATURE_VERIFICATION, start);
+        }
+    }
+
+    /**
+     * Получить данные пользователя для токена в соответствии с режимом аутентификации.
+     *
+     * @param token - разобранный токен
+     * @return данные пользователя или null, если пользователь не найден
+     */
+    private UserDetails resolveUser(final JwtToken token) {
+        if (authenticationMode == AuthenticationMode.CLAIMS) {
+            return userClaims.toUser(token)
+                .map(UserDetails.class::cast)
+                .orElseGet(() -> loadUser(token.getSubject()));
+        }
+
+        return loadUser(token.getSubject());
+    }
+
+    /**
+     * Получить данные пользователя из сервиса пользователей.
+     * Ненайденный пользователь учитывается в метриках как USER_NOT_FOUND, а не как ошибка фильтра.
+     *
+     * @param username - username
+     * @return данные пользователя или null, если пользователь не найден
+     */
+    private UserDetails loadUser(final String username) {
+        try {
+            return userDetailsService.loadUserByUsername(username);
+        } catch (UsernameNotFoundException exception) {
+            return null;
+        }
+    }
 }
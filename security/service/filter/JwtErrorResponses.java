@@ -0,0 +1,121 @@
+package security.service.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import security.service.util.RetryLaterException;
+import transfer.contract.exception.ApplicationException;
+import transfer.contract.exception.BaseErrorCode;
+import transfer.contract.exception.ClientApplicationException;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Заранее сериализованные тела ответов об ошибках.
+ * Тела не зависят от конкретного запроса, поэтому сериализуются один раз.
+ * Не зависит от servlet API и используется как servlet-, так и reactive-фильтрами.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class JwtErrorResponses {
+    /**
+     * Сообщение об ошибке для невалидного токена.
+     */
+    public static final String INVALID_TOKEN_MESSAGE = "Получен невалидный JWT-токен в Authorization-хедере";
+
+    /**
+     * Сообщение о непредвиденной ошибке на сервере.
+     */
+    public static final String INTERNAL_ERROR_MESSAGE = "Произошла непредвиденная ошибка на сервере";
+
+    /**
+     * Класс для записи ApplicationError в JSON-формат.
+     */
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Тело ответа для невалидного токена. Массив общий, изменять его нельзя.
+     */
+    @Getter
+    private byte[] invalidTokenBody;
+
+    /**
+     * Тело ответа для непредвиденной ошибки. Массив общий, изменять его нельзя.
+     */
+    @Getter
+    private byte[] internalErrorBody;
+
+    /**
+     * Тела ответов для отклоненных запросов по типу исключения.
+     */
+    private final Map<Class<?>, byte[]> retryLaterBodies = new ConcurrentHashMap<>();
+
+    /**
+     * Сериализовать тела ответов один раз при старте.
+     */
+    @PostConstruct
+    @SneakyThrows
+    public void init() {
+        invalidTokenBody = objectMapper.writeValueAsBytes(
+            new ClientApplicationException(BaseErrorCode.WRONG_JWT_TOKEN, INVALID_TOKEN_MESSAGE));
+        internalErrorBody = objectMapper.writeValueAsBytes(
+            new ApplicationException(BaseErrorCode.INTERNAL_ERROR, INTERNAL_ERROR_MESSAGE));
+    }
+
+    /**
+     * Получить тело ответа для отклоненного запроса.
+     * Сообщение определяется типом исключения, поэтому тело сериализуется один раз на тип.
+     * Код ошибки соответствует статусу ответа: 429 - ошибка клиента, 503 - временная недоступность.
+     *
+     * @param exception - исключение
+     * @return тело ответа. Массив общий, изменять его нельзя
+     */
+    public byte[] getRetryLaterBody(final RetryLaterException exception) {
+        return retryLaterBodies.computeIfAbsent(exception.getClass(), type -> {
+            BaseErrorCode errorCode = errorCodeFor(exception.getStatusCode());
+            return serialize(exception.getStatusCode().is4xxClientError()
+                ? new ClientApplicationException(errorCode, exception.getReason())
+                : new ApplicationException(errorCode, exception.getReason()));
+        });
+    }
+
+    /**
+     * Получить код ошибки, совпадающий по названию со статусом ответа (TOO_MANY_REQUESTS, SERVICE_UNAVAILABLE).
+     * Если в контракте такого кода нет, используется INTERNAL_ERROR с предупреждением в логе.
+     *
+     * @param status - статус ответа
+     * @return код ошибки
+     */
+    private static BaseErrorCode errorCodeFor(final HttpStatusCode status) {
+        HttpStatus resolved = HttpStatus.resolve(status.value());
+        if (resolved != null) {
+            try {
+                return BaseErrorCode.valueOf(resolved.name());
+            } catch (IllegalArgumentException exception) {
+                log.warn("В BaseErrorCode нет кода {}, для ответа {} используется INTERNAL_ERROR",
+                    resolved.name(), status.value());
+            }
+        }
+
+        return BaseErrorCode.INTERNAL_ERROR;
+    }
+
+    /**
+     * Сериализовать тело ответа.
+     *
+     * @param body - тело ответа
+     * @return сериализованное тело
+     */
+    @SneakyThrows
+    private byte[] serialize(final Object body) {
+        return objectMapper.writeValueAsBytes(body);
+    }
+}
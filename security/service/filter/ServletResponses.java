@@ -0,0 +1,41 @@
+package security.service.filter;
+
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Запись заранее сериализованных ответов об ошибках в servlet-ответ.
+ */
+final class ServletResponses {
+    /**
+     * Utility-класс.
+     */
+    private ServletResponses() {
+    }
+
+    /**
+     * Записать JSON-тело ответа напрямую в поток ответа.
+     * Если кто-то в цепочке уже получил Writer ответа, поток недоступен, и тело пишется через Writer.
+     *
+     * @param response - ответ
+     * @param status   - статус ответа
+     * @param body     - тело ответа в UTF-8
+     * @throws IOException если запись не удалась
+     */
+    static void writeJson(final HttpServletResponse response,
+                          final int status,
+                          final byte[] body) throws IOException {
+        response.setStatus(status);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setContentLength(body.length);
+        try {
+            response.getOutputStream().write(body);
+        } catch (IllegalStateException exception) {
+            response.getWriter().write(new String(body, StandardCharsets.UTF_8));
+        }
+    }
+}
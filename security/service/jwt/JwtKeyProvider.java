@@ -0,0 +1,238 @@
+package security.service.jwt;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.SigningKeyResolver;
+import io.jsonwebtoken.UnsupportedJwtException;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import jakarta.annotation.PostConstruct;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.security.Key;
+import java.security.KeyFactory;
+import java.security.spec.KeySpec;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Класс, хранящий ключи для подписи и проверки JWT-токенов.
+ * Ключи вычисляются один раз при старте приложения.
+ * Для HMAC-алгоритмов используется общий секрет, для RSA/ECDSA - закрытый ключ
+ * на подписывающем узле и набор открытых ключей, выбираемых по kid, на всех остальных.
+ */
+@Component
+public class JwtKeyProvider implements SigningKeyResolver {
+    /**
+     * Название алгоритма подписи.
+     */
+    @Value("${jwt.algorithm:HS256}")
+    private String algorithmName;
+
+    /**
+     * Секретный ключ для HMAC-алгоритмов.
+     */
+    @Value("${jwt.secret:}")
+    private String secret;
+
+    /**
+     * Закрытый ключ в формате PKCS#8 (Base64 или PEM). Нужен только подписывающему узлу.
+     */
+    @Value("${jwt.private-key:}")
+    private String privateKey;
+
+    /**
+     * kid, с которым подписываются новые токены.
+     */
+    @Value("${jwt.key-id:}")
+    private String keyId;
+
+    /**
+     * Открытые ключи для проверки в формате "kid:ключ в X.509 Base64".
+     */
+    @Value("${jwt.public-keys:}")
+    private String[] publicKeys;
+
+    /**
+     * Алгоритм подписи.
+     */
+    @Getter
+    private SignatureAlgorithm algorithm;
+
+    /**
+     * Ключ для подписи токенов, null если узел только проверяет токены.
+     */
+    @Getter
+    private Key signingKey;
+
+    /**
+     * kid для подписи токенов, null если не задан.
+     */
+    @Getter
+    private String signingKeyId;
+
+    /**
+     * Ключи для проверки по kid.
+     */
+    private Map<String, Key> verificationKeys;
+
+    /**
+     * Ключ для проверки токенов без kid, null если таких токенов не принимаем.
+     */
+    private Key defaultVerificationKey;
+
+    /**
+     * Вычислить ключи из конфигурации.
+     * Некорректная конфигурация приводит к ошибке при старте, а не на первом запросе.
+     */
+    @PostConstruct
+    public void init() {
+        try {
+            algorithm = SignatureAlgorithm.forName(algorithmName);
+            signingKeyId = keyId.isBlank() ? null : keyId;
+            if (algorithm.isHmac()) {
+                initHmac();
+            } else if (algorithm.isRsa() || algorithm.isEllipticCurve()) {
+                initAsymmetric();
+            } else {
+                throw new IllegalArgumentException("Алгоритм " + algorithmName + " не поддерживается");
+            }
+        } catch (RuntimeException exception) {
+            throw new IllegalStateException("Некорректная конфигурация ключей JWT: "
+                + exception.getMessage(), exception);
+        }
+    }
+
+    /**
+     * Получить ключ для проверки подписи токена.
+     *
+     * @param header - заголовок токена
+     * @param claims - claims токена
+     * @return ключ для проверки
+     */
+    @Override
+    public Key resolveSigningKey(final JwsHeader header,
+                                 final Claims claims) {
+        return resolveVerificationKey(header);
+    }
+
+    /**
+     * Получить ключ для проверки подписи токена.
+     *
+     * @param header    - заголовок токена
+     * @param plaintext - содержимое токена
+     * @return ключ для проверки
+     */
+    @Override
+    public Key resolveSigningKey(final JwsHeader header,
+                                 final String plaintext) {
+        return resolveVerificationKey(header);
+    }
+
+    /**
+     * Выбрать ключ для проверки по kid из заранее подготовленной таблицы.
+     *
+     * @param header - заголовок токена
+     * @return ключ для проверки
+     */
+    private Key resolveVerificationKey(final JwsHeader header) {
+        if (!algorithm.getValue().equals(header.getAlgorithm())) {
+            throw new UnsupportedJwtException("Алгоритм подписи " + header.getAlgorithm() + " не поддерживается");
+        }
+
+        String kid = header.getKeyId();
+        Key key = kid == null ? defaultVerificationKey : verificationKeys.get(kid);
+        if (key == null) {
+            throw new SignatureException("Неизвестный kid: " + kid);
+        }
+
+        return key;
+    }
+
+    /**
+     * Подготовить ключ для HMAC-алгоритма.
+     */
+    private void initHmac() {
+        if (secret.isBlank()) {
+            throw new IllegalArgumentException("Для алгоритма " + algorithmName + " требуется jwt.secret");
+        }
+
+        signingKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret));
+        defaultVerificationKey = signingKey;
+        verificationKeys = signingKeyId == null ? Map.of() : Map.of(signingKeyId, signingKey);
+    }
+
+    /**
+     * Подготовить ключи для RSA/ECDSA-алгоритмов.
+     */
+    private void initAsymmetric() {
+        String keyAlgorithm = algorithm.isRsa() ? "RSA" : "EC";
+        if (!privateKey.isBlank()) {
+            if (signingKeyId == null) {
+                throw new IllegalArgumentException("Для подписи асимметричным ключом требуется jwt.key-id");
+            }
+
+            signingKey = generateKey(keyAlgorithm, new PKCS8EncodedKeySpec(decodeKey(privateKey)), true);
+        }
+
+        Map<String, Key> keys = new HashMap<>();
+        for (String publicKey : publicKeys) {
+            if (publicKey.isBlank()) {
+                continue;
+            }
+
+            int separator = publicKey.indexOf(':');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Ожидается формат kid:ключ в jwt.public-keys");
+            }
+
+            keys.put(publicKey.substring(0, separator).trim(), generateKey(keyAlgorithm,
+                new X509EncodedKeySpec(decodeKey(publicKey.substring(separator + 1))), false));
+        }
+
+        if (keys.isEmpty()) {
+            throw new IllegalArgumentException("Для алгоритма " + algorithmName + " требуется jwt.public-keys");
+        }
+
+        verificationKeys = Map.copyOf(keys);
+        defaultVerificationKey = keys.size() == 1 ? keys.values().iterator().next() : null;
+    }
+
+    /**
+     * Создать ключ из спецификации.
+     *
+     * @param keyAlgorithm - алгоритм ключа (RSA или EC)
+     * @param keySpec      - спецификация ключа
+     * @param isPrivate    - является ли ключ закрытым
+     * @return ключ
+     */
+    private static Key generateKey(final String keyAlgorithm,
+                                   final KeySpec keySpec,
+                                   final boolean isPrivate) {
+        try {
+            KeyFactory keyFactory = KeyFactory.getInstance(keyAlgorithm);
+            return isPrivate ? keyFactory.generatePrivate(keySpec) : keyFactory.generatePublic(keySpec);
+        } catch (Exception exception) {
+            throw new IllegalArgumentException("Некорректный " + keyAlgorithm + "-ключ: "
+                + exception.getMessage(), exception);
+        }
+    }
+
+    /**
+     * Декодировать ключ из Base64, допуская PEM-обрамление и переводы строк.
+     *
+     * @param key - ключ в Base64 или PEM
+     * @return байты ключа
+     */
+    private static byte[] decodeKey(final String key) {
+        return Decoders.BASE64.decode(key
+            .replaceAll("-----(BEGIN|END) [A-Z ]+-----", "")
+            .replaceAll("\\s", ""));
+    }
+}
@@ -0,0 +1,68 @@
+package security.service.jwt;
+
+import io.jsonwebtoken.Claims;
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.Date;
+
+/**
+ * Разобранный и проверенный JWT-токен.
+ * Создается один раз на запрос в {@link JwtTokenExtractor} и переиспользуется
+ * валидатором и фильтром без повторного разбора и проверки подписи.
+ */
+@Value
+@Builder
+public class JwtToken {
+    /**
+     * Исходная строка токена.
+     */
+    String value;
+
+    /**
+     * Идентификатор токена (claim jti), null для токенов без него.
+     */
+    String id;
+
+    /**
+     * Subject токена (username).
+     */
+    String subject;
+
+    /**
+     * Время выпуска токена.
+     */
+    Date issuedAt;
+
+    /**
+     * Окончание времени жизни токена.
+     */
+    Date expiration;
+
+    /**
+     * Все claims токена, включая пользовательские.
+     */
+    Claims claims;
+
+    /**
+     * Получить пользовательский claim.
+     *
+     * @param name - название claim
+     * @param type - тип значения
+     * @param <T>  - параметр
+     * @return значение claim или null, если его нет
+     */
+    public <T> T getClaim(final String name,
+                          final Class<T> type) {
+        return claims.get(name, type);
+    }
+
+    /**
+     * Истекло ли время жизни токена.
+     *
+     * @return true, если время жизни истекло, иначе false
+     */
+    public boolean isExpired() {
+        return expiration != null && expiration.getTime() < System.currentTimeMillis();
+    }
+}
@@ -1,16 +1,13 @@
 package security.service.jwt;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.io.Decoders;
-import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.security.Key;
 import java.util.Date;
-import java.util.function.Function;
 
 /**
  * Класс для извлечения данных из JWT-токенов.
@@ -19,10 +16,67 @@ import java.util.function.Function;
 @RequiredArgsConstructor
 public class JwtTokenExtractor {
     /**
-     * Секретный ключ.
+     * Класс, хранящий ключи для проверки токенов.
      */
-    @Value("${jwt.secret}")
-    private String secret;
+    private final JwtKeyProvider keyProvider;
+
+    /**
+     * Кэш уже проверенных токенов.
+     */
+    private final VerifiedTokenCache tokenCache;
+
+    /**
+     * Парсер токенов. Неизменяемый и потокобезопасный, создается один раз.
+     */
+    private JwtParser parser;
+
+    /**
+     * Создать парсер токенов.
+     */
+    @PostConstruct
+    public void init() {
+        parser = Jwts
+            .parserBuilder()
+            .setSigningKeyResolver(keyProvider)
+            .build();
+    }
+
+    /**
+     * Разобрать токен и проверить его подпись.
+     * Все данные токена извлекаются за один разбор,
+     * повторно предъявленный токен берется из кэша без проверки подписи.
+     *
+     * @param token - токен
+     * @return разобранный токен
+     */
+    public JwtToken parse(final String token) {
+        JwtToken cached = tokenCache.get(token);
+        if (cached != null) {
+            return cached;
+        }
+
+        JwtToken parsed = verify(token);
+        tokenCache.put(parsed);
+
+        return parsed;
+    }
+
+    /**
+     * Разобрать токен и проверить его подпись, не добавляя результат в кэш.
+     * Используется для токенов из недоверенных пакетных запросов,
+     * чтобы они не вытесняли из кэша токены, предъявляемые на горячем пути.
+     *
+     * @param token - токен
+     * @return разобранный токен
+     */
+    public JwtToken parseWithoutCaching(final String token) {
+        JwtToken cached = tokenCache.get(token);
+        if (cached != null) {
+            return cached;
+        }
+
+        return verify(token);
+    }
 
     /**
      * Извлечь username из токена.
@@ -31,7 +85,7 @@ public class JwtTokenExtractor {
      * @return username
      */
     public String extractUsername(final String token) {
-        return extractClaim(token, Claims::getSubject);
+        return parse(token).getSubject();
     }
 
     /**
@@ -41,21 +95,25 @@ public class JwtTokenExtractor {
      * @return окончание времени жизни токена
      */
     public Date extractExpiration(final String token) {
-        return extractClaim(token, Claims::getExpiration);
+        return parse(token).getExpiration();
     }
 
     /**
-     * Извлечь claim из токена.
+     * Разобрать токен и проверить его подпись без обращения к кэшу.
      *
-     * @param token          - токен
-     * @param claimsResolver - функция для преобразования claim
-     * @param <T>            - параметр
-     * @return claim
+     * @param token - токен
+     * @return разобранный токен
      */
-    private <T> T extractClaim(final String token,
-                               Function<Claims, T> claimsResolver) {
+    private JwtToken verify(final String token) {
         Claims claims = extractAllClaims(token);
-        return claimsResolver.apply(claims);
+        return JwtToken.builder()
+            .value(token)
+            .id(claims.getId())
+            .subject(claims.getSubject())
+            .issuedAt(claims.getIssuedAt())
+            .expiration(claims.getExpiration())
+            .claims(claims)
+            .build();
     }
 
     /**
@@ -65,20 +123,8 @@ public class JwtTokenExtractor {
      * @return claims
      */
     private Claims extractAllClaims(final String token) {
-        return Jwts
-            .parserBuilder()
-            .setSigningKey(getSigningKey())
-            .build()
+        return parser
             .parseClaimsJws(token)
             .getBody();
     }
-
-    /**
-     * Получить закодированный секретный ключ.
-     *
-     * @return закодированный секретный ключ
-     */
-    private Key getSigningKey() {
-        return Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret));
-    }
 }
@@ -1,17 +1,17 @@
 package security.service.jwt;
 
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtBuilder;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.SignatureAlgorithm;
-import io.jsonwebtoken.io.Decoders;
-import io.jsonwebtoken.security.Keys;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
+import security.service.metrics.SecurityMetrics;
 
-import java.security.Key;
 import java.util.Date;
 import java.util.Map;
+import java.util.UUID;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -27,10 +27,25 @@ public class JwtTokenGenerator {
     private Long expirationTimeSeconds;
 
     /**
-     * Секретный ключ.
+     * Класс, хранящий ключи для подписи токенов.
      */
-    @Value("${jwt.secret}")
-    private String secret;
+    private final JwtKeyProvider keyProvider;
+
+    /**
+     * Класс для переноса данных пользователя в claims.
+     */
+    private final JwtUserClaims userClaims;
+
+    /**
+     * Метрики security.
+     */
+    private final SecurityMetrics metrics;
+
+    /**
+     * Добавлять ли в токен id, роль и имя пользователя.
+     */
+    @Value("${jwt.embed-user-claims:false}")
+    private boolean embedUserClaims;
 
     /**
      * Сгенерировать токен для пользователя.
@@ -39,7 +54,11 @@ public class JwtTokenGenerator {
      * @return токен
      */
     public String generate(final UserDetails userDetails) {
-        return generateToken(Map.of(), userDetails);
+        long start = metrics.start();
+        String token = generateToken(embedUserClaims ? userClaims.toClaims(userDetails) : Map.of(), userDetails);
+        metrics.recordTokenIssue(start);
+
+        return token;
     }
 
     /**
@@ -51,23 +70,23 @@ public class JwtTokenGenerator {
      */
     private String generateToken(final Map<String, Object> claims,
                                  final UserDetails userDetails) {
-        return Jwts
-            .builder()
+        if (keyProvider.getSigningKey() == null) {
+            throw new IllegalStateException("Не задан ключ для подписи токенов (jwt.private-key)");
+        }
+
+        JwtBuilder builder = Jwts.builder();
+        if (keyProvider.getSigningKeyId() != null) {
+            builder.setHeaderParam(JwsHeader.KEY_ID, keyProvider.getSigningKeyId());
+        }
+
+        return builder
             .setClaims(claims)
+            .setId(UUID.randomUUID().toString())
             .setSubject(userDetails.getUsername())
             .setIssuedAt(new Date(System.currentTimeMillis()))
             .setExpiration(new Date(System.currentTimeMillis()
                 + TimeUnit.SECONDS.toMillis(expirationTimeSeconds)))
-            .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+            .signWith(keyProvider.getSigningKey(), keyProvider.getAlgorithm())
             .compact();
     }
-
-    /**
-     * Получить закодированный секретный ключ.
-     *
-     * @return закодированный секретный ключ
-     */
-    private Key getSigningKey() {
-        return Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret));
-    }
 }
@@ -0,0 +1,144 @@
+package security.service.jwt;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Класс для дешевой предварительной проверки структуры JWT-токена.
+ * Отсекает заведомо некорректные токены до разбора JSON и проверки подписи.
+ */
+@Component
+@RequiredArgsConstructor
+public class JwtTokenPreValidator {
+    /**
+     * Максимальный размер заголовка токена после декодирования.
+     */
+    private static final int MAX_HEADER_LENGTH = 512;
+
+    /**
+     * Класс, хранящий ключи и алгоритм подписи.
+     */
+    private final JwtKeyProvider keyProvider;
+
+    /**
+     * Максимальная длина токена в символах.
+     */
+    @Value("${jwt.max-token-length:8192}")
+    private int maxTokenLength;
+
+    /**
+     * Может ли строка быть корректным токеном: ограничение на длину,
+     * три непустых Base64URL-сегмента, ожидаемые alg и typ в заголовке.
+     *
+     * @param token - токен
+     * @return true, если токен стоит передавать на полную проверку
+     */
+    public boolean isWellFormed(final String token) {
+        int length = token.length();
+        if (length == 0 || length > maxTokenLength) {
+            return false;
+        }
+
+        int firstDot = -1;
+        int secondDot = -1;
+        for (int i = 0; i < length; i++) {
+            char c = token.charAt(i);
+            if (c == '.') {
+                if (firstDot < 0) {
+                    firstDot = i;
+                } else if (secondDot < 0) {
+                    secondDot = i;
+                } else {
+                    return false;
+                }
+            } else if (!isBase64UrlChar(c)) {
+                return false;
+            }
+        }
+
+        if (firstDot <= 0 || secondDot <= firstDot + 1 || secondDot == length - 1
+            || firstDot > MAX_HEADER_LENGTH * 4 / 3 + 1) {
+            return false;
+        }
+
+        return isHeaderAcceptable(token.substring(0, firstDot));
+    }
+
+    /**
+     * Содержит ли заголовок ожидаемый alg и допустимый typ.
+     *
+     * @param encodedHeader - заголовок в Base64URL
+     * @return true, если заголовок допустим
+     */
+    private boolean isHeaderAcceptable(final String encodedHeader) {
+        String header;
+        try {
+            header = new String(Base64.getUrlDecoder().decode(encodedHeader), StandardCharsets.ISO_8859_1);
+        } catch (IllegalArgumentException exception) {
+            return false;
+        }
+
+        String typ = findStringValue(header, "typ");
+        return keyProvider.getAlgorithm().getValue().equals(findStringValue(header, "alg"))
+            && (typ == null || "JWT".equalsIgnoreCase(typ));
+    }
+
+    /**
+     * Найти строковое значение поля верхнего уровня в JSON-заголовке токена.
+     *
+     * @param json - заголовок
+     * @param name - название поля
+     * @return значение поля или null, если поле не найдено
+     */
+    private static String findStringValue(final String json,
+                                          final String name) {
+        int index = json.indexOf('"' + name + '"');
+        if (index < 0) {
+            return null;
+        }
+
+        int position = skipWhitespace(json, index + name.length() + 2);
+        if (position >= json.length() || json.charAt(position) != ':') {
+            return null;
+        }
+
+        position = skipWhitespace(json, position + 1);
+        if (position >= json.length() || json.charAt(position) != '"') {
+            return null;
+        }
+
+        int end = json.indexOf('"', position + 1);
+        return end < 0 ? null : json.substring(position + 1, end);
+    }
+
+    /**
+     * Пропустить пробельные символы.
+     *
+     * @param json     - строка
+     * @param position - начальная позиция
+     * @return позиция первого непробельного символа
+     */
+    private static int skipWhitespace(final String json,
+                                      final int position) {
+        int current = position;
+        while (current < json.length() && Character.isWhitespace(json.charAt(current))) {
+            current++;
+        }
+
+        return current;
+    }
+
+    /**
+     * Является ли символ допустимым для Base64URL без паддинга.
+     *
+     * @param c - символ
+     * @return true, если символ допустим
+     */
+    private static boolean isBase64UrlChar(final char c) {
+        return (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9') || c == '-' || c == '_';
+    }
+}
@@ -3,8 +3,7 @@ package security.service.jwt;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
-
-import java.util.Date;
+import security.service.jwt.revocation.TokenRevocationService;
 
 /**
  * Класс для валидации JWT-токенов.
@@ -17,6 +16,11 @@ public class JwtTokenValidator {
      */
     private final JwtTokenExtractor extractor;
 
+    /**
+     * Сервис отзыва токенов.
+     */
+    private final TokenRevocationService revocationService;
+
     /**
      * Является ли токен валидным для пользователя.
      *
@@ -26,17 +30,19 @@ public class JwtTokenValidator {
      */
     public boolean isValid(final String token,
                            final UserDetails userDetails) {
-        String extractedUsername = extractor.extractUsername(token);
-        return extractedUsername.equals(userDetails.getUsername()) && !isTokenExpired(token);
+        return isValid(extractor.parse(token), userDetails);
     }
 
     /**
-     * Истекло ли время жизни токена.
+     * Является ли уже разобранный токен валидным для пользователя.
      *
-     * @param token - токен
-     * @return true, если время жизни истекло, иначе false
+     * @param token       - разобранный токен
+     * @param userDetails - данные пользователя
+     * @return является ли токен валидным
      */
-    private boolean isTokenExpired(final String token) {
-        return extractor.extractExpiration(token).before(new Date(System.currentTimeMillis()));
+    public boolean isValid(final JwtToken token,
+                           final UserDetails userDetails) {
+        return token.getSubject().equals(userDetails.getUsername()) && !token.isExpired()
+            && !revocationService.isRevoked(token.getId());
     }
 }
@@ -0,0 +1,102 @@
+package security.service.jwt;
+
+import io.jsonwebtoken.RequiredTypeException;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+import transfer.contract.domain.user.UserRole;
+import transfer.contract.domain.user.UserTo;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Класс для переноса данных пользователя в claims токена и обратно.
+ * Позволяет аутентифицировать запрос без обращения к сервису пользователей.
+ */
+@Component
+public class JwtUserClaims {
+    /**
+     * Claim с идентификатором пользователя.
+     */
+    public static final String USER_ID = "uid";
+
+    /**
+     * Claim с ролью пользователя.
+     */
+    public static final String ROLE = "role";
+
+    /**
+     * Claim с именем пользователя.
+     */
+    public static final String FIRST_NAME = "first_name";
+
+    /**
+     * Claim с фамилией пользователя.
+     */
+    public static final String LAST_NAME = "last_name";
+
+    /**
+     * Получить claims с данными пользователя.
+     *
+     * @param userDetails - данные пользователя
+     * @return claims, пустые если пользователь не является UserTo
+     */
+    public Map<String, Object> toClaims(final UserDetails userDetails) {
+        if (!(userDetails instanceof UserTo user)) {
+            return Map.of();
+        }
+
+        Map<String, Object> claims = new HashMap<>();
+        putIfPresent(claims, USER_ID, user.getId());
+        putIfPresent(claims, ROLE, user.getRole() == null ? null : user.getRole().name());
+        putIfPresent(claims, FIRST_NAME, user.getFirstName());
+        putIfPresent(claims, LAST_NAME, user.getLastName());
+
+        return claims;
+    }
+
+    /**
+     * Восстановить пользователя из claims токена.
+     * Некорректные claims (не UUID, неизвестная роль, например удаленная после выпуска токена, или значение
+     * не строкового типа) считаются отсутствующими: пользователь тогда загружается из сервиса пользователей.
+     *
+     * @param token - разобранный токен
+     * @return пользователь или пустой Optional, если в токене нет нужных или корректных claims
+     */
+    public Optional<UserTo> toUser(final JwtToken token) {
+        try {
+            String id = token.getClaim(USER_ID, String.class);
+            String role = token.getClaim(ROLE, String.class);
+            if (id == null || role == null) {
+                return Optional.empty();
+            }
+
+            return Optional.of(UserTo.builder()
+                .id(UUID.fromString(id))
+                .username(token.getSubject())
+                .role(UserRole.valueOf(role))
+                .firstName(token.getClaim(FIRST_NAME, String.class))
+                .lastName(token.getClaim(LAST_NAME, String.class))
+                .build());
+        } catch (IllegalArgumentException | RequiredTypeException exception) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Добавить claim, если значение задано.
+     *
+     * @param claims - claims
+     * @param name   - название claim
+     * @param value  - значение
+     */
+    private static void putIfPresent(final Map<String, Object> claims,
+                                     final String name,
+                                     final Object value) {
+        if (value != null) {
+            claims.put(name, value.toString());
+        }
+    }
+}
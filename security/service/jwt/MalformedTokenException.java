@@ -0,0 +1,28 @@
+package security.service.jwt;
+
+import io.jsonwebtoken.JwtException;
+
+/**
+ * Исключение для токенов, отклоненных предварительной проверкой структуры.
+ * Не собирает стек вызовов: причина отказа всегда одна и та же, поэтому создание исключения дешево.
+ * Общий экземпляр не используется: JwtException не позволяет отключить suppressed-исключения,
+ * и они накапливались бы в общем экземпляре между запросами.
+ */
+public final class MalformedTokenException extends JwtException {
+    /**
+     * Создать исключение.
+     */
+    public MalformedTokenException() {
+        super("Токен не прошел предварительную проверку структуры", null);
+    }
+
+    /**
+     * Стек вызовов не собирается.
+     *
+     * @return это исключение
+     */
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+}
@@ -0,0 +1,252 @@
+package security.service.jwt;
+
+import jakarta.annotation.PostConstruct;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import security.service.util.BatchEvictor;
+import security.service.util.CacheCounters;
+import security.service.util.SecurityTaskScheduler;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Ограниченный кэш уже проверенных JWT-токенов.
+ * Ключом служит SHA-256 от токена, запись живет не дольше exp токена.
+ * Позволяет не проверять подпись повторно для одного и того же токена.
+ */
+@Component
+@RequiredArgsConstructor
+public class VerifiedTokenCache {
+    /**
+     * Примерный размер служебных данных одной записи в байтах.
+     */
+    private static final int ENTRY_OVERHEAD_BYTES = 512;
+
+    /**
+     * MessageDigest для вычисления ключа. Не потокобезопасен, поэтому свой на каждый поток.
+     */
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException exception) {
+            throw new IllegalStateException(exception);
+        }
+    });
+
+    /**
+     * Включен ли кэш.
+     */
+    @Getter
+    @Value("${jwt.cache.enabled:false}")
+    private boolean enabled;
+
+    /**
+     * Максимальное количество записей.
+     */
+    @Value("${jwt.cache.max-entries:10000}")
+    private int maxEntries;
+
+    /**
+     * Максимальный примерный объем кэша в байтах, 0 - без ограничения.
+     */
+    @Value("${jwt.cache.max-bytes:0}")
+    private long maxBytes;
+
+    /**
+     * Интервал фоновой очистки истекших записей в секундах, 0 - без фоновой очистки.
+     */
+    @Value("${jwt.cache.cleanup-interval-seconds:30}")
+    private long cleanupIntervalSeconds;
+
+    /**
+     * Планировщик фоновых задач.
+     */
+    private final SecurityTaskScheduler scheduler;
+
+    /**
+     * Счетчики кэша.
+     */
+    @Getter
+    private final CacheCounters counters = new CacheCounters();
+
+    /**
+     * Записи кэша.
+     */
+    private final Map<TokenDigest, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * Текущий примерный объем кэша в байтах.
+     */
+    private final AtomicLong currentBytes = new AtomicLong();
+
+    /**
+     * Освобождение места в заполненном кэше.
+     */
+    private final BatchEvictor evictor = new BatchEvictor();
+
+    /**
+     * Запустить фоновую очистку истекших записей.
+     */
+    @PostConstruct
+    public void init() {
+        if (cleanupIntervalSeconds < 0) {
+            throw new IllegalStateException("jwt.cache.cleanup-interval-seconds не может быть отрицательным");
+        }
+
+        if (enabled && cleanupIntervalSeconds > 0) {
+            scheduler.scheduleAtFixedRate(this::evictExpired, cleanupIntervalSeconds, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * Получить проверенный токен из кэша.
+     *
+     * @param token - токен
+     * @return разобранный токен или null, если его нет в кэше или он истек
+     */
+    public JwtToken get(final String token) {
+        if (!enabled) {
+            return null;
+        }
+
+        TokenDigest digest = digest(token);
+        Entry entry = entries.get(digest);
+        if (entry == null) {
+            counters.recordMiss();
+            return null;
+        }
+
+        if (entry.expiresAtMillis <= System.currentTimeMillis()) {
+            evict(digest, entry);
+            counters.recordMiss();
+            return null;
+        }
+
+        counters.recordHit();
+        return entry.token;
+    }
+
+    /**
+     * Поместить проверенный токен в кэш.
+     * Токены без exp не кэшируются.
+     *
+     * @param token - разобранный токен
+     */
+    public void put(final JwtToken token) {
+        if (!enabled || token.getExpiration() == null) {
+            return;
+        }
+
+        Entry entry = new Entry(token, token.getExpiration().getTime(),
+            ENTRY_OVERHEAD_BYTES + 2L * token.getValue().length());
+        if (entries.size() >= maxEntries || exceedsBytes(entry.bytes)) {
+            makeRoom(entry.bytes);
+        }
+
+        Entry previous = entries.put(digest(token.getValue()), entry);
+        currentBytes.addAndGet(previous == null ? entry.bytes : entry.bytes - previous.bytes);
+    }
+
+    /**
+     * Получить текущее количество записей.
+     *
+     * @return количество записей
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Получить текущий примерный объем кэша в байтах.
+     *
+     * @return объем в байтах
+     */
+    public long estimatedBytes() {
+        return currentBytes.get();
+    }
+
+    /**
+     * Удалить все истекшие записи.
+     */
+    public void evictExpired() {
+        long now = System.currentTimeMillis();
+        entries.forEach((digest, entry) -> {
+            if (entry.expiresAtMillis <= now) {
+                evict(digest, entry);
+            }
+        });
+    }
+
+    /**
+     * Освободить место под новую запись, удалив пакет записей.
+     * Истекшие записи удаляются фоновой очисткой, здесь полный проход не выполняется.
+     *
+     * @param requiredBytes - объем новой записи
+     */
+    private void makeRoom(final long requiredBytes) {
+        evictor.evictBatch(entries, maxEntries, this::evict);
+        if (exceedsBytes(requiredBytes)) {
+            evictor.evictBatch(entries, entries.size(), this::evict);
+        }
+    }
+
+    /**
+     * Удалить запись, если она не была заменена другим потоком.
+     *
+     * @param digest - ключ
+     * @param entry  - запись
+     */
+    private void evict(final TokenDigest digest,
+                       final Entry entry) {
+        if (entries.remove(digest, entry)) {
+            currentBytes.addAndGet(-entry.bytes);
+            counters.recordEviction();
+        }
+    }
+
+    /**
+     * Превысит ли кэш ограничение по объему после добавления записи.
+     *
+     * @param additionalBytes - объем новой записи
+     * @return true, если ограничение будет превышено
+     */
+    private boolean exceedsBytes(final long additionalBytes) {
+        return maxBytes > 0 && currentBytes.get() + additionalBytes > maxBytes;
+    }
+
+    /**
+     * Вычислить ключ кэша для токена.
+     *
+     * @param token - токен
+     * @return SHA-256 от токена
+     */
+    private static TokenDigest digest(final String token) {
+        ByteBuffer hash = ByteBuffer.wrap(SHA_256.get().digest(token.getBytes(StandardCharsets.US_ASCII)));
+        return new TokenDigest(hash.getLong(), hash.getLong(), hash.getLong(), hash.getLong());
+    }
+
+    /**
+     * Компактный ключ кэша - SHA-256 токена в виде четырех long.
+     */
+    private record TokenDigest(long first, long second, long third, long fourth) {
+    }
+
+    /**
+     * Запись кэша.
+     *
+     * @param token           - разобранный токен
+     * @param expiresAtMillis - момент, после которого запись недействительна
+     * @param bytes           - примерный объем записи
+     */
+    private record Entry(JwtToken token, long expiresAtMillis, long bytes) {
+    }
+}
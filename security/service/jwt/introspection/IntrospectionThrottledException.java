@@ -0,0 +1,20 @@
+package security.service.jwt.introspection;
+
+import org.springframework.http.HttpStatus;
+import security.service.util.RetryLaterException;
+
+/**
+ * Исключение, выбрасываемое, когда превышена частота пакетных проверок токенов.
+ * Превращается в ответ 429 с хедером Retry-After.
+ */
+public class IntrospectionThrottledException extends RetryLaterException {
+    /**
+     * Создать исключение.
+     *
+     * @param retryAfterSeconds - через сколько секунд клиенту стоит повторить запрос
+     */
+    public IntrospectionThrottledException(final long retryAfterSeconds) {
+        super(HttpStatus.TOO_MANY_REQUESTS, "Слишком много запросов проверки токенов, повторите запрос позже",
+            retryAfterSeconds);
+    }
+}
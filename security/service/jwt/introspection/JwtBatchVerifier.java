@@ -0,0 +1,228 @@
+package security.service.jwt.introspection;
+
+import io.jsonwebtoken.JwtException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import security.service.jwt.JwtToken;
+import security.service.jwt.JwtTokenExtractor;
+import security.service.jwt.JwtTokenPreValidator;
+import security.service.jwt.revocation.TokenRevocationService;
+import security.service.metrics.AuthenticationOutcome;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Сервис пакетной проверки JWT-токенов для шлюзов и асинхронных обработчиков.
+ * Одинаковые токены в пакете проверяются один раз, большие пакеты делятся
+ * на части и проверяются параллельно на отдельном пуле.
+ * Результаты не добавляются в общий кэш проверенных токенов.
+ */
+@Service
+@RequiredArgsConstructor
+public class JwtBatchVerifier {
+    /**
+     * Класс для извлечения данных из JWT-токенов.
+     */
+    private final JwtTokenExtractor extractor;
+
+    /**
+     * Класс для предварительной проверки структуры токенов.
+     */
+    private final JwtTokenPreValidator preValidator;
+
+    /**
+     * Сервис отзыва токенов.
+     */
+    private final TokenRevocationService revocationService;
+
+    /**
+     * Максимальное количество токенов в пакете.
+     */
+    @Getter
+    @Value("${jwt.introspection.max-batch-size:200}")
+    private int maxBatchSize;
+
+    /**
+     * Минимальное количество уникальных токенов на одну параллельную часть.
+     */
+    @Value("${jwt.introspection.parallel-threshold:64}")
+    private int parallelThreshold;
+
+    /**
+     * Количество потоков проверки, 0 - по числу процессоров.
+     */
+    @Value("${jwt.introspection.pool-size:0}")
+    private int poolSize;
+
+    /**
+     * Пул для параллельной проверки. Создается при первом пакете, которому нужна параллельная проверка,
+     * чтобы сервисы, не использующие пакетную проверку, не держали лишние потоки.
+     */
+    private volatile ExecutorService executor;
+
+    /**
+     * Количество потоков проверки.
+     */
+    private int parallelism;
+
+    /**
+     * Определить количество потоков проверки.
+     */
+    @PostConstruct
+    public void init() {
+        parallelism = poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * Остановить пул, если он был создан.
+     */
+    @PreDestroy
+    public synchronized void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Получить пул для параллельной проверки, создав его при первом обращении.
+     *
+     * @return пул
+     */
+    private ExecutorService executor() {
+        ExecutorService current = executor;
+        if (current != null) {
+            return current;
+        }
+
+        synchronized (this) {
+            if (executor == null) {
+                AtomicInteger threadNumber = new AtomicInteger();
+                executor = Executors.newFixedThreadPool(parallelism, runnable -> {
+                    Thread thread = new Thread(runnable, "jwt-batch-verifier-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+            }
+
+            return executor;
+        }
+    }
+
+    /**
+     * Проверить пакет токенов.
+     *
+     * @param tokens - токены
+     * @return результаты проверки в том же порядке, что и токены
+     * @throws IllegalArgumentException если пакет больше jwt.introspection.max-batch-size
+     */
+    public List<TokenIntrospection> verify(final List<String> tokens) {
+        if (tokens.size() > maxBatchSize) {
+            throw new IllegalArgumentException("Пакет превышает " + maxBatchSize + " токенов");
+        }
+
+        Map<String, Integer> uniqueIndexes = new HashMap<>();
+        List<String> unique = new ArrayList<>();
+        int[] positions = new int[tokens.size()];
+        for (int i = 0; i < positions.length; i++) {
+            String token = tokens.get(i);
+            Integer index = uniqueIndexes.putIfAbsent(token, unique.size());
+            if (index == null) {
+                index = unique.size();
+                unique.add(token);
+            }
+
+            positions[i] = index;
+        }
+
+        TokenIntrospection[] results = verifyUnique(unique);
+        TokenIntrospection[] ordered = new TokenIntrospection[positions.length];
+        for (int i = 0; i < positions.length; i++) {
+            ordered[i] = results[positions[i]];
+        }
+
+        return Arrays.asList(ordered);
+    }
+
+    /**
+     * Проверить уникальные токены, при большом количестве - параллельно.
+     *
+     * @param unique - уникальные токены
+     * @return результаты проверки
+     */
+    private TokenIntrospection[] verifyUnique(final List<String> unique) {
+        TokenIntrospection[] results = new TokenIntrospection[unique.size()];
+        int chunks = Math.min(parallelism, unique.size() / Math.max(parallelThreshold, 1));
+        if (chunks <= 1) {
+            verifyRange(unique, results, 0, unique.size());
+            return results;
+        }
+
+        int chunkSize = (unique.size() + chunks - 1) / chunks;
+        ExecutorService pool = executor();
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[chunks - 1];
+        for (int chunk = 1; chunk < chunks; chunk++) {
+            int from = chunk * chunkSize;
+            int to = Math.min(from + chunkSize, unique.size());
+            futures[chunk - 1] = CompletableFuture.runAsync(() -> verifyRange(unique, results, from, to), pool);
+        }
+
+        verifyRange(unique, results, 0, Math.min(chunkSize, unique.size()));
+        CompletableFuture.allOf(futures).join();
+
+        return results;
+    }
+
+    /**
+     * Проверить часть токенов.
+     *
+     * @param tokens  - токены
+     * @param results - массив результатов
+     * @param from    - начало части, включительно
+     * @param to      - конец части, не включительно
+     */
+    private void verifyRange(final List<String> tokens,
+                             final TokenIntrospection[] results,
+                             final int from,
+                             final int to) {
+        for (int i = from; i < to; i++) {
+            results[i] = verifyOne(tokens.get(i));
+        }
+    }
+
+    /**
+     * Проверить один токен.
+     *
+     * @param token - токен
+     * @return результат проверки
+     */
+    private TokenIntrospection verifyOne(final String token) {
+        if (token == null || !preValidator.isWellFormed(token)) {
+            return TokenIntrospection.inactive(AuthenticationOutcome.MALFORMED);
+        }
+
+        JwtToken parsed;
+        try {
+            parsed = extractor.parseWithoutCaching(token);
+        } catch (JwtException exception) {
+            return TokenIntrospection.inactive(AuthenticationOutcome.of(exception));
+        }
+
+        if (parsed.getSubject() == null || revocationService.isRevoked(parsed.getId())) {
+            return TokenIntrospection.inactive(AuthenticationOutcome.REJECTED);
+        }
+
+        return TokenIntrospection.active(parsed);
+    }
+}
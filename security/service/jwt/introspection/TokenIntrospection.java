@@ -0,0 +1,52 @@
+package security.service.jwt.introspection;
+
+import lombok.Value;
+import security.service.jwt.JwtToken;
+import security.service.metrics.AuthenticationOutcome;
+
+/**
+ * Результат проверки одного токена в пакете.
+ */
+@Value
+public class TokenIntrospection {
+    /**
+     * Является ли токен валидным.
+     */
+    boolean active;
+
+    /**
+     * Subject токена (username), null для невалидного токена.
+     */
+    String subject;
+
+    /**
+     * Окончание времени жизни токена в миллисекундах, null для невалидного токена.
+     */
+    Long expiresAtMillis;
+
+    /**
+     * Результат проверки: VALID или причина отказа.
+     */
+    AuthenticationOutcome outcome;
+
+    /**
+     * Создать результат для валидного токена.
+     *
+     * @param token - разобранный токен
+     * @return результат проверки
+     */
+    public static TokenIntrospection active(final JwtToken token) {
+        return new TokenIntrospection(true, token.getSubject(),
+            token.getExpiration() != null ? token.getExpiration().getTime() : null, AuthenticationOutcome.VALID);
+    }
+
+    /**
+     * Создать результат для невалидного токена.
+     *
+     * @param outcome - причина отказа
+     * @return результат проверки
+     */
+    public static TokenIntrospection inactive(final AuthenticationOutcome outcome) {
+        return new TokenIntrospection(false, null, null, outcome);
+    }
+}
@@ -0,0 +1,123 @@
+package security.service.jwt.introspection;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import security.service.login.KeyedRateLimiter;
+import security.service.util.SecurityTaskScheduler;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Endpoint пакетной проверки токенов. Включается свойством jwt.introspection.endpoint.enabled.
+ * Доступен только аутентифицированным клиентам с правом jwt.introspection.endpoint.authority,
+ * частота запросов ограничивается для каждого клиента.
+ */
+@RestController
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "jwt.introspection.endpoint.enabled", havingValue = "true")
+public class TokenIntrospectionController {
+    /**
+     * Сервис пакетной проверки токенов.
+     */
+    private final JwtBatchVerifier batchVerifier;
+
+    /**
+     * Планировщик фоновых задач.
+     */
+    private final SecurityTaskScheduler scheduler;
+
+    /**
+     * Право, необходимое для вызова endpoint.
+     */
+    @Value("${jwt.introspection.endpoint.authority:TOKEN_INTROSPECTION}")
+    private String requiredAuthority;
+
+    /**
+     * Количество запросов подряд для одного клиента.
+     */
+    @Value("${jwt.introspection.endpoint.rate.capacity:10}")
+    private int rateCapacity;
+
+    /**
+     * За сколько секунд восстанавливаются запросы клиента.
+     */
+    @Value("${jwt.introspection.endpoint.rate.refill-seconds:1}")
+    private long rateRefillSeconds;
+
+    /**
+     * Максимальное количество отслеживаемых клиентов.
+     */
+    @Value("${jwt.introspection.endpoint.rate.max-keys:10000}")
+    private int rateMaxKeys;
+
+    /**
+     * Ограничитель частоты по клиенту.
+     */
+    private KeyedRateLimiter rateLimiter;
+
+    /**
+     * Создать ограничитель и запустить очистку неактивных клиентов.
+     */
+    @PostConstruct
+    public void init() {
+        rateLimiter = new KeyedRateLimiter(rateCapacity, rateRefillSeconds, rateMaxKeys);
+        scheduler.scheduleAtFixedRate(rateLimiter::evictIdle, Math.max(1, rateRefillSeconds), TimeUnit.SECONDS);
+    }
+
+    /**
+     * Проверить пакет токенов.
+     *
+     * @param tokens         - токены
+     * @param authentication - аутентификация клиента
+     * @return результаты проверки в том же порядке, что и токены
+     */
+    @PostMapping("/api/v1/tokens/introspect")
+    public List<TokenIntrospection> introspect(@RequestBody final List<String> tokens,
+                                               final Authentication authentication) {
+        if (!hasRequiredAuthority(authentication)) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN);
+        }
+
+        long waitNanos = rateLimiter.tryAcquire(authentication.getName());
+        if (waitNanos > 0) {
+            throw new IntrospectionThrottledException(TimeUnit.NANOSECONDS.toSeconds(waitNanos) + 1);
+        }
+
+        if (tokens.size() > batchVerifier.getMaxBatchSize()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                "Пакет превышает " + batchVerifier.getMaxBatchSize() + " токенов");
+        }
+
+        return batchVerifier.verify(tokens);
+    }
+
+    /**
+     * Есть ли у клиента право на пакетную проверку токенов.
+     *
+     * @param authentication - аутентификация клиента
+     * @return true, если право есть
+     */
+    private boolean hasRequiredAuthority(final Authentication authentication) {
+        if (authentication == null || !authentication.isAuthenticated()) {
+            return false;
+        }
+
+        for (GrantedAuthority authority : authentication.getAuthorities()) {
+            if (requiredAuthority.equals(authority.getAuthority())) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+}
@@ -0,0 +1,77 @@
+package security.service.jwt.refresh;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Хранилище refresh-токенов в памяти одного узла.
+ * Подходит для тестов и сервисов, запущенных в одном экземпляре.
+ */
+public class InMemoryRefreshTokenStore implements RefreshTokenStore {
+    /**
+     * Записи о токенах по хешу.
+     */
+    private final Map<String, RefreshTokenRecord> tokens = new ConcurrentHashMap<>();
+
+    /**
+     * Отозванные цепочки и момент, до которого хранится отзыв.
+     */
+    private final Map<String, Long> revokedFamilies = new ConcurrentHashMap<>();
+
+    /**
+     * Сохранить выданный токен.
+     *
+     * @param tokenHash - хеш токена
+     * @param record    - запись о токене
+     */
+    @Override
+    public void save(final String tokenHash,
+                     final RefreshTokenRecord record) {
+        tokens.put(tokenHash, record);
+    }
+
+    /**
+     * Атомарно пометить токен использованным.
+     *
+     * @param tokenHash - хеш токена
+     * @return запись о токене до пометки или null, если токен неизвестен, истек или его цепочка отозвана
+     */
+    @Override
+    public RefreshTokenRecord markUsed(final String tokenHash) {
+        RefreshTokenRecord[] previous = new RefreshTokenRecord[1];
+        tokens.computeIfPresent(tokenHash, (hash, record) -> {
+            previous[0] = record;
+            return record.withUsed(true);
+        });
+
+        RefreshTokenRecord record = previous[0];
+        if (record == null || record.getExpiresAtMillis() <= System.currentTimeMillis()
+            || revokedFamilies.containsKey(record.getFamilyId())) {
+            return null;
+        }
+
+        return record;
+    }
+
+    /**
+     * Отозвать все токены цепочки.
+     *
+     * @param familyId        - идентификатор цепочки
+     * @param expiresAtMillis - до какого момента хранить отзыв
+     */
+    @Override
+    public void revokeFamily(final String familyId,
+                             final long expiresAtMillis) {
+        revokedFamilies.merge(familyId, expiresAtMillis, Math::max);
+    }
+
+    /**
+     * Удалить истекшие записи.
+     */
+    @Override
+    public void evictExpired() {
+        long now = System.currentTimeMillis();
+        tokens.values().removeIf(record -> record.getExpiresAtMillis() <= now);
+        revokedFamilies.values().removeIf(expiresAtMillis -> expiresAtMillis <= now);
+    }
+}
@@ -0,0 +1,19 @@
+package security.service.jwt.refresh;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Исключение, выбрасываемое для неизвестного, истекшего или повторно использованного refresh-токена.
+ * Превращается в ответ 401: клиенту нужно войти заново.
+ */
+public class InvalidRefreshTokenException extends ResponseStatusException {
+    /**
+     * Создать исключение.
+     *
+     * @param reason - причина отказа
+     */
+    public InvalidRefreshTokenException(final String reason) {
+        super(HttpStatus.UNAUTHORIZED, reason);
+    }
+}
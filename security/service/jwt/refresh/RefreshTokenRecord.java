@@ -0,0 +1,36 @@
+package security.service.jwt.refresh;
+
+import lombok.Value;
+import lombok.With;
+
+/**
+ * Запись о выданном refresh-токене.
+ */
+@Value
+public class RefreshTokenRecord {
+    /**
+     * Username владельца токена.
+     */
+    String username;
+
+    /**
+     * Идентификатор цепочки токенов, полученных друг из друга ротацией.
+     */
+    String familyId;
+
+    /**
+     * Окончание времени жизни токена в миллисекундах.
+     */
+    long expiresAtMillis;
+
+    /**
+     * Окончание времени жизни всей цепочки в миллисекундах: ротация не продлевает токены дальше этого момента.
+     */
+    long familyExpiresAtMillis;
+
+    /**
+     * Был ли токен уже использован для обновления.
+     */
+    @With
+    boolean used;
+}
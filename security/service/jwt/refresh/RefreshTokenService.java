@@ -0,0 +1,186 @@
+package security.service.jwt.refresh;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Service;
+import security.service.UserDetailsServiceImpl;
+import security.service.jwt.JwtTokenGenerator;
+import security.service.util.SecurityTaskScheduler;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сервис выдачи и ротации refresh-токенов.
+ * Обновление access-токена не требует проверки пароля: refresh-токен проверяется в памяти по хешу.
+ * Каждый refresh-токен одноразовый; повторное предъявление уже использованного токена
+ * считается кражей, и вся цепочка токенов отзывается.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RefreshTokenService {
+    /**
+     * Длина refresh-токена в байтах.
+     */
+    private static final int TOKEN_BYTES = 32;
+
+    /**
+     * Генератор случайных токенов.
+     */
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    /**
+     * Хранилище refresh-токенов, заданное приложением.
+     */
+    private final ObjectProvider<RefreshTokenStore> storeProvider;
+
+    /**
+     * Класс для генерации JWT-токенов.
+     */
+    private final JwtTokenGenerator tokenGenerator;
+
+    /**
+     * Класс для получения данных о пользователях.
+     */
+    private final UserDetailsServiceImpl userDetailsService;
+
+    /**
+     * Планировщик фоновых задач.
+     */
+    private final SecurityTaskScheduler scheduler;
+
+    /**
+     * Время действия refresh-токена и всей цепочки ротаций в секундах, считая от входа по паролю.
+     */
+    @Value("${jwt.refresh.expiration-time-seconds:2592000}")
+    private long expirationTimeSeconds;
+
+    /**
+     * Интервал очистки истекших токенов в секундах.
+     */
+    @Value("${jwt.refresh.cleanup-interval-seconds:300}")
+    private long cleanupIntervalSeconds;
+
+    /**
+     * Хранилище refresh-токенов.
+     */
+    private RefreshTokenStore store;
+
+    /**
+     * Выбрать хранилище и запустить очистку истекших токенов.
+     */
+    @PostConstruct
+    public void init() {
+        store = storeProvider.getIfAvailable(InMemoryRefreshTokenStore::new);
+        scheduler.scheduleAtFixedRate(store::evictExpired, cleanupIntervalSeconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Выдать пару токенов после успешного входа.
+     *
+     * @param userDetails - данные пользователя
+     * @return пара токенов
+     */
+    public TokenPair issue(final UserDetails userDetails) {
+        return issue(userDetails, UUID.randomUUID().toString(),
+            System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(expirationTimeSeconds));
+    }
+
+    /**
+     * Обменять refresh-токен на новую пару токенов.
+     *
+     * @param refreshToken - refresh-токен
+     * @return новая пара токенов
+     * @throws InvalidRefreshTokenException если токен неизвестен, истек или уже использован
+     */
+    public TokenPair refresh(final String refreshToken) {
+        RefreshTokenRecord record = store.markUsed(hash(refreshToken));
+        if (record == null) {
+            throw new InvalidRefreshTokenException("Невалидный refresh-токен");
+        }
+
+        if (record.isUsed()) {
+            log.warn("Повторное использование refresh-токена пользователя {}, цепочка отозвана", record.getUsername());
+            store.revokeFamily(record.getFamilyId(), record.getFamilyExpiresAtMillis());
+            throw new InvalidRefreshTokenException("Refresh-токен уже был использован");
+        }
+
+        UserDetails userDetails;
+        try {
+            userDetails = userDetailsService.uncached().loadUserByUsername(record.getUsername());
+        } catch (UsernameNotFoundException exception) {
+            userDetails = null;
+        }
+
+        if (userDetails == null || !userDetails.isEnabled() || !userDetails.isAccountNonLocked()) {
+            store.revokeFamily(record.getFamilyId(), record.getFamilyExpiresAtMillis());
+            throw new InvalidRefreshTokenException("Пользователь недоступен");
+        }
+
+        return issue(userDetails, record.getFamilyId(), record.getFamilyExpiresAtMillis());
+    }
+
+    /**
+     * Отозвать цепочку, к которой относится refresh-токен (например, при выходе).
+     *
+     * @param refreshToken - refresh-токен
+     */
+    public void revoke(final String refreshToken) {
+        RefreshTokenRecord record = store.markUsed(hash(refreshToken));
+        if (record != null) {
+            store.revokeFamily(record.getFamilyId(), record.getFamilyExpiresAtMillis());
+        }
+    }
+
+    /**
+     * Выдать пару токенов в рамках цепочки.
+     * Время жизни refresh-токена не выходит за окончание времени жизни цепочки,
+     * поэтому постоянная ротация не продлевает цепочку бесконечно.
+     *
+     * @param userDetails           - данные пользователя
+     * @param familyId              - идентификатор цепочки
+     * @param familyExpiresAtMillis - окончание времени жизни цепочки
+     * @return пара токенов
+     */
+    private TokenPair issue(final UserDetails userDetails,
+                            final String familyId,
+                            final long familyExpiresAtMillis) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        RANDOM.nextBytes(bytes);
+        String refreshToken = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        long expiresAtMillis = Math.min(familyExpiresAtMillis,
+            System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(expirationTimeSeconds));
+
+        store.save(hash(refreshToken), new RefreshTokenRecord(userDetails.getUsername(), familyId,
+            expiresAtMillis, familyExpiresAtMillis, false));
+
+        return new TokenPair(tokenGenerator.generate(userDetails), refreshToken, expiresAtMillis);
+    }
+
+    /**
+     * Вычислить хеш refresh-токена для хранения.
+     *
+     * @param refreshToken - refresh-токен
+     * @return SHA-256 от токена в Base64URL
+     */
+    private static String hash(final String refreshToken) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                .digest(refreshToken.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException exception) {
+            throw new IllegalStateException(exception);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package security.service.jwt.refresh;
+
+/**
+ * Хранилище выданных refresh-токенов. Токены хранятся по хешу, а не в открытом виде.
+ * Приложение может объявить свой бин этого типа, чтобы токены были общими для всех узлов.
+ * По умолчанию используется {@link InMemoryRefreshTokenStore}.
+ */
+public interface RefreshTokenStore {
+    /**
+     * Сохранить выданный токен.
+     *
+     * @param tokenHash - хеш токена
+     * @param record    - запись о токене
+     */
+    void save(String tokenHash, RefreshTokenRecord record);
+
+    /**
+     * Атомарно пометить токен использованным.
+     *
+     * @param tokenHash - хеш токена
+     * @return запись о токене до пометки или null, если токен неизвестен, истек или его цепочка отозвана
+     */
+    RefreshTokenRecord markUsed(String tokenHash);
+
+    /**
+     * Отозвать все токены цепочки.
+     *
+     * @param familyId        - идентификатор цепочки
+     * @param expiresAtMillis - до какого момента хранить отзыв
+     */
+    void revokeFamily(String familyId, long expiresAtMillis);
+
+    /**
+     * Удалить истекшие записи.
+     */
+    void evictExpired();
+}
@@ -0,0 +1,24 @@
+package security.service.jwt.refresh;
+
+import lombok.Value;
+
+/**
+ * Пара токенов: короткоживущий access-токен и refresh-токен для его обновления.
+ */
+@Value
+public class TokenPair {
+    /**
+     * Access-токен (JWT).
+     */
+    String accessToken;
+
+    /**
+     * Refresh-токен (непрозрачная строка).
+     */
+    String refreshToken;
+
+    /**
+     * Окончание времени жизни refresh-токена в миллисекундах.
+     */
+    long refreshTokenExpiresAtMillis;
+}
@@ -0,0 +1,98 @@
+package security.service.jwt.revocation;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Потокобезопасный фильтр Блума для строковых ключей.
+ * Отвечает "точно нет" или "возможно да" за несколько обращений к памяти.
+ */
+class BloomFilter {
+    /**
+     * Биты фильтра.
+     */
+    private final AtomicLongArray bits;
+
+    /**
+     * Количество бит.
+     */
+    private final long bitCount;
+
+    /**
+     * Количество хеш-функций.
+     */
+    private final int hashCount;
+
+    /**
+     * Создать фильтр под ожидаемое количество элементов и вероятность ложного срабатывания.
+     *
+     * @param expectedInsertions       - ожидаемое количество элементов
+     * @param falsePositiveProbability - допустимая вероятность ложного срабатывания
+     */
+    BloomFilter(final long expectedInsertions,
+                final double falsePositiveProbability) {
+        long n = Math.max(1, expectedInsertions);
+        long m = (long) Math.ceil(-n * Math.log(falsePositiveProbability) / (Math.log(2) * Math.log(2)));
+        this.bitCount = Math.max(64, (m + 63) / 64 * 64);
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / n * Math.log(2)));
+        this.bits = new AtomicLongArray((int) (bitCount / 64));
+    }
+
+    /**
+     * Добавить ключ.
+     *
+     * @param key - ключ
+     */
+    void put(final String key) {
+        long hash = hash(key);
+        int first = (int) hash;
+        int second = (int) (hash >>> 32) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            long index = Integer.toUnsignedLong(first + i * second) % bitCount;
+            int word = (int) (index >>> 6);
+            long mask = 1L << index;
+            long current;
+            do {
+                current = bits.get(word);
+            } while ((current & mask) == 0 && !bits.compareAndSet(word, current, current | mask));
+        }
+    }
+
+    /**
+     * Может ли ключ присутствовать в фильтре.
+     *
+     * @param key - ключ
+     * @return false, если ключа точно нет
+     */
+    boolean mightContain(final String key) {
+        long hash = hash(key);
+        int first = (int) hash;
+        int second = (int) (hash >>> 32) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            long index = Integer.toUnsignedLong(first + i * second) % bitCount;
+            if ((bits.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * 64-битный хеш FNV-1a с финальным перемешиванием.
+     *
+     * @param key - ключ
+     * @return хеш
+     */
+    private static long hash(final String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            hash ^= key.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
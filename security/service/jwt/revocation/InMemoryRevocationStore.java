@@ -0,0 +1,40 @@
+package security.service.jwt.revocation;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Хранилище отозванных токенов в памяти одного узла.
+ * Подходит для тестов и сервисов, запущенных в одном экземпляре.
+ */
+public class InMemoryRevocationStore implements RevocationStore {
+    /**
+     * Отозванные токены по jti.
+     */
+    private final Map<String, RevokedToken> tokens = new ConcurrentHashMap<>();
+
+    /**
+     * Сохранить отозванный токен.
+     *
+     * @param token - отозванный токен
+     */
+    @Override
+    public void save(final RevokedToken token) {
+        tokens.put(token.getId(), token);
+    }
+
+    /**
+     * Получить все отозванные токены, время жизни которых еще не истекло.
+     * Истекшие записи при этом удаляются.
+     *
+     * @return отозванные токены
+     */
+    @Override
+    public Collection<RevokedToken> findAllActive() {
+        long now = System.currentTimeMillis();
+        tokens.values().removeIf(token -> token.getExpiresAtMillis() <= now);
+        return List.copyOf(tokens.values());
+    }
+}
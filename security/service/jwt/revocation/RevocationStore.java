@@ -0,0 +1,24 @@
+package security.service.jwt.revocation;
+
+import java.util.Collection;
+
+/**
+ * Хранилище отозванных токенов, общее для всех узлов.
+ * Приложение может объявить свой бин этого типа, например поверх Redis или БД.
+ * По умолчанию используется {@link InMemoryRevocationStore}.
+ */
+public interface RevocationStore {
+    /**
+     * Сохранить отозванный токен.
+     *
+     * @param token - отозванный токен
+     */
+    void save(RevokedToken token);
+
+    /**
+     * Получить все отозванные токены, время жизни которых еще не истекло.
+     *
+     * @return отозванные токены
+     */
+    Collection<RevokedToken> findAllActive();
+}
@@ -0,0 +1,20 @@
+package security.service.jwt.revocation;
+
+import lombok.Value;
+
+/**
+ * Отозванный токен.
+ */
+@Value
+public class RevokedToken {
+    /**
+     * Идентификатор токена (claim jti).
+     */
+    String id;
+
+    /**
+     * Окончание времени жизни токена в миллисекундах.
+     * После этого момента запись об отзыве больше не нужна.
+     */
+    long expiresAtMillis;
+}
@@ -0,0 +1,182 @@
+package security.service.jwt.revocation;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import security.service.jwt.JwtToken;
+import security.service.util.SecurityTaskScheduler;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сервис отзыва JWT-токенов по claim jti.
+ * Проверка неотозванного токена выполняется фильтром Блума в памяти без ввода-вывода,
+ * точный набор отозванных токенов проверяется только при срабатывании фильтра.
+ * Набор периодически синхронизируется с {@link RevocationStore}, истекшие записи отбрасываются.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TokenRevocationService {
+    /**
+     * Хранилище отозванных токенов, заданное приложением.
+     */
+    private final ObjectProvider<RevocationStore> storeProvider;
+
+    /**
+     * Планировщик фоновых задач.
+     */
+    private final SecurityTaskScheduler scheduler;
+
+    /**
+     * Включен ли отзыв токенов.
+     */
+    @Value("${jwt.revocation.enabled:false}")
+    private boolean enabled;
+
+    /**
+     * Ожидаемое количество одновременно отозванных токенов.
+     */
+    @Value("${jwt.revocation.expected-revocations:100000}")
+    private long expectedRevocations;
+
+    /**
+     * Допустимая вероятность ложного срабатывания фильтра Блума.
+     */
+    @Value("${jwt.revocation.false-positive-probability:0.001}")
+    private double falsePositiveProbability;
+
+    /**
+     * Интервал синхронизации с хранилищем в секундах.
+     */
+    @Value("${jwt.revocation.sync-interval-seconds:30}")
+    private long syncIntervalSeconds;
+
+    /**
+     * Хранилище отозванных токенов.
+     */
+    private RevocationStore store;
+
+    /**
+     * Текущее состояние: фильтр Блума и точный набор. Заменяется целиком при синхронизации.
+     */
+    private volatile State state;
+
+    /**
+     * Загрузить отозванные токены и запустить периодическую синхронизацию.
+     */
+    @PostConstruct
+    public void init() {
+        store = storeProvider.getIfAvailable(InMemoryRevocationStore::new);
+        state = new State(new BloomFilter(expectedRevocations, falsePositiveProbability), new ConcurrentHashMap<>());
+        if (enabled) {
+            sync();
+            scheduler.scheduleAtFixedRate(this::syncSafely, syncIntervalSeconds, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * Отозвать токен.
+     *
+     * @param token - разобранный токен
+     * @throws IllegalStateException если отзыв токенов выключен и токен продолжал бы приниматься
+     */
+    public void revoke(final JwtToken token) {
+        if (token.getId() == null || token.getExpiration() == null) {
+            throw new IllegalArgumentException("Токен без jti или exp не может быть отозван");
+        }
+
+        revoke(new RevokedToken(token.getId(), token.getExpiration().getTime()));
+    }
+
+    /**
+     * Отозвать токен.
+     *
+     * @param token - отозванный токен
+     * @throws IllegalStateException если отзыв токенов выключен и токен продолжал бы приниматься
+     */
+    public synchronized void revoke(final RevokedToken token) {
+        if (!enabled) {
+            throw new IllegalStateException("Отзыв токенов выключен (jwt.revocation.enabled=false), "
+                + "отозванный токен продолжал бы приниматься");
+        }
+
+        store.save(token);
+        state.add(token);
+    }
+
+    /**
+     * Включен ли отзыв токенов.
+     *
+     * @return true, если отозванные токены отклоняются
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Отозван ли токен.
+     *
+     * @param jti - идентификатор токена
+     * @return true, если токен отозван и его время жизни еще не истекло
+     */
+    public boolean isRevoked(final String jti) {
+        if (!enabled || jti == null) {
+            return false;
+        }
+
+        State current = state;
+        if (!current.bloomFilter.mightContain(jti)) {
+            return false;
+        }
+
+        Long expiresAtMillis = current.revoked.get(jti);
+        return expiresAtMillis != null && expiresAtMillis > System.currentTimeMillis();
+    }
+
+    /**
+     * Перестроить состояние по хранилищу, отбросив истекшие записи.
+     */
+    public synchronized void sync() {
+        State rebuilt = new State(new BloomFilter(expectedRevocations, falsePositiveProbability),
+            new ConcurrentHashMap<>());
+        store.findAllActive().forEach(rebuilt::add);
+        state = rebuilt;
+    }
+
+    /**
+     * Синхронизация для фонового запуска: ошибка хранилища не должна останавливать задачу.
+     */
+    private void syncSafely() {
+        try {
+            sync();
+        } catch (RuntimeException exception) {
+            log.warn("Не удалось синхронизировать отозванные токены: {}", exception.getMessage());
+        }
+    }
+
+    /**
+     * Состояние отозванных токенов.
+     *
+     * @param bloomFilter - фильтр Блума по jti
+     * @param revoked     - точный набор: jti и окончание времени жизни токена
+     */
+    private record State(BloomFilter bloomFilter, Map<String, Long> revoked) {
+        /**
+         * Добавить отозванный токен, если его время жизни еще не истекло.
+         *
+         * @param token - отозванный токен
+         */
+        void add(final RevokedToken token) {
+            if (token.getExpiresAtMillis() > System.currentTimeMillis()) {
+                revoked.put(token.getId(), token.getExpiresAtMillis());
+                bloomFilter.put(token.getId());
+            }
+        }
+    }
+}
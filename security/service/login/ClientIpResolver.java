@@ -0,0 +1,93 @@
+package security.service.login;
+
+import jakarta.annotation.PostConstruct;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.web.util.matcher.IpAddressMatcher;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Определение IP клиента за доверенными прокси.
+ * Если запрос пришел от доверенного прокси (например, шлюза), IP клиента берется из хедера
+ * security.client-ip.header: последний справа адрес, не принадлежащий доверенным прокси.
+ * Хедер от недоверенного источника игнорируется, поэтому клиент не может подставить чужой IP.
+ */
+@Component
+public class ClientIpResolver {
+    /**
+     * Хедер со списком адресов, через которые прошел запрос.
+     */
+    @Getter
+    @Value("${security.client-ip.header:X-Forwarded-For}")
+    private String header;
+
+    /**
+     * Доверенные прокси: IP-адреса или подсети в нотации CIDR.
+     */
+    @Value("${security.client-ip.trusted-proxies:}")
+    private String[] trustedProxies;
+
+    /**
+     * Проверки доверенных прокси.
+     */
+    private final List<IpAddressMatcher> trustedMatchers = new ArrayList<>();
+
+    /**
+     * Разобрать список доверенных прокси.
+     */
+    @PostConstruct
+    public void init() {
+        for (String trustedProxy : trustedProxies) {
+            if (!trustedProxy.isBlank()) {
+                trustedMatchers.add(new IpAddressMatcher(trustedProxy.trim()));
+            }
+        }
+    }
+
+    /**
+     * Определить IP клиента.
+     *
+     * @param remoteAddress - адрес, с которого пришло соединение
+     * @param forwardedFor  - значение хедера security.client-ip.header, null если его нет
+     * @return IP клиента или null, если адрес неизвестен
+     */
+    public String resolve(final String remoteAddress,
+                          final String forwardedFor) {
+        if (remoteAddress == null || forwardedFor == null || !isTrusted(remoteAddress)) {
+            return remoteAddress;
+        }
+
+        String[] hops = forwardedFor.split(",");
+        for (int i = hops.length - 1; i >= 0; i--) {
+            String hop = hops[i].trim();
+            if (!hop.isEmpty() && !isTrusted(hop)) {
+                return hop;
+            }
+        }
+
+        return remoteAddress;
+    }
+
+    /**
+     * Является ли адрес доверенным прокси.
+     *
+     * @param address - адрес
+     * @return true, если адрес принадлежит доверенным прокси
+     */
+    private boolean isTrusted(final String address) {
+        for (IpAddressMatcher matcher : trustedMatchers) {
+            try {
+                if (matcher.matches(address)) {
+                    return true;
+                }
+            } catch (IllegalArgumentException exception) {
+                return false;
+            }
+        }
+
+        return false;
+    }
+}
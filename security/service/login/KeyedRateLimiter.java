@@ -0,0 +1,130 @@
+package security.service.login;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Неблокирующий ограничитель частоты по ключу (алгоритм GCRA, эквивалентный token bucket).
+ * Состояние ключа - одно число (теоретическое время следующего запроса), обновляемое через CAS,
+ * поэтому глобальной блокировки нет. Ключи, ведро которых полностью восстановилось,
+ * удаляются при периодической очистке. Количество ключей ограничено: если таблица заполнена
+ * и в небольшой выборке нет восстановившихся ключей, новый ключ отклоняется,
+ * поэтому заполнение таблицы множеством ключей не отключает ограничение.
+ */
+public class KeyedRateLimiter {
+    /**
+     * Сколько записей просматривается при заполненной таблице в поисках восстановившихся ключей.
+     */
+    private static final int EVICTION_SAMPLE_SIZE = 32;
+
+    /**
+     * Интервал восстановления одного разрешения в наносекундах.
+     */
+    private final long emissionIntervalNanos;
+
+    /**
+     * Допустимое опережение графика в наносекундах (размер ведра минус одно разрешение).
+     */
+    private final long burstToleranceNanos;
+
+    /**
+     * Максимальное количество отслеживаемых ключей.
+     */
+    private final int maxKeys;
+
+    /**
+     * Теоретическое время следующего запроса по ключу.
+     */
+    private final Map<String, AtomicLong> states = new ConcurrentHashMap<>();
+
+    /**
+     * Создать ограничитель.
+     *
+     * @param capacity      - размер ведра (количество запросов подряд)
+     * @param refillSeconds - за сколько секунд ведро восстанавливается полностью
+     * @param maxKeys       - максимальное количество отслеживаемых ключей
+     * @throws IllegalArgumentException если какой-либо из параметров не положителен
+     */
+    public KeyedRateLimiter(final int capacity,
+                            final long refillSeconds,
+                            final int maxKeys) {
+        if (capacity <= 0 || refillSeconds <= 0 || maxKeys <= 0) {
+            throw new IllegalArgumentException("Размер ведра, время восстановления и количество ключей "
+                + "должны быть положительными: " + capacity + ", " + refillSeconds + ", " + maxKeys);
+        }
+
+        this.emissionIntervalNanos = TimeUnit.SECONDS.toNanos(refillSeconds) / capacity;
+        this.burstToleranceNanos = emissionIntervalNanos * (capacity - 1);
+        this.maxKeys = maxKeys;
+    }
+
+    /**
+     * Попытаться получить разрешение для ключа.
+     *
+     * @param key - ключ
+     * @return 0, если разрешение получено, иначе через сколько наносекунд стоит повторить.
+     * Новый ключ при заполненной таблице отклоняется на интервал восстановления одного разрешения
+     */
+    public long tryAcquire(final String key) {
+        AtomicLong state = states.get(key);
+        if (state == null) {
+            if (states.size() >= maxKeys && !evictIdleSample()) {
+                return emissionIntervalNanos;
+            }
+
+            state = states.computeIfAbsent(key, ignored -> new AtomicLong(System.nanoTime()));
+        }
+
+        while (true) {
+            long now = System.nanoTime();
+            long current = state.get();
+            long theoreticalArrival = current - now < 0 ? now : current;
+            long waitNanos = theoreticalArrival - now - burstToleranceNanos;
+            if (waitNanos > 0) {
+                return waitNanos;
+            }
+
+            if (state.compareAndSet(current, theoreticalArrival + emissionIntervalNanos)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Удалить ключи, ведро которых полностью восстановилось.
+     */
+    public void evictIdle() {
+        long now = System.nanoTime();
+        states.entrySet().removeIf(entry -> entry.getValue().get() - now <= 0);
+    }
+
+    /**
+     * Удалить восстановившиеся ключи среди ограниченного количества записей.
+     *
+     * @return true, если освободилось место хотя бы для одного ключа
+     */
+    private boolean evictIdleSample() {
+        long now = System.nanoTime();
+        Iterator<Map.Entry<String, AtomicLong>> iterator = states.entrySet().iterator();
+        for (int i = 0; i < EVICTION_SAMPLE_SIZE && iterator.hasNext(); i++) {
+            Map.Entry<String, AtomicLong> entry = iterator.next();
+            if (entry.getValue().get() - now <= 0) {
+                states.remove(entry.getKey(), entry.getValue());
+            }
+        }
+
+        return states.size() < maxKeys;
+    }
+
+    /**
+     * Получить количество отслеживаемых ключей.
+     *
+     * @return количество ключей
+     */
+    public int size() {
+        return states.size();
+    }
+}
@@ -0,0 +1,108 @@
+package security.service.login;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import security.service.util.SecurityTaskScheduler;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ограничение частоты попыток входа по username и по IP клиента.
+ * Проверка выполняется до хеширования пароля и обращения к сервису пользователей.
+ */
+@Component
+@RequiredArgsConstructor
+public class LoginThrottle {
+    /**
+     * Планировщик фоновых задач.
+     */
+    private final SecurityTaskScheduler scheduler;
+
+    /**
+     * Включено ли ограничение.
+     */
+    @Value("${security.login-throttle.enabled:false}")
+    private boolean enabled;
+
+    /**
+     * Количество попыток входа подряд для одного username.
+     */
+    @Value("${security.login-throttle.username.capacity:5}")
+    private int usernameCapacity;
+
+    /**
+     * За сколько секунд восстанавливаются попытки для username.
+     */
+    @Value("${security.login-throttle.username.refill-seconds:60}")
+    private long usernameRefillSeconds;
+
+    /**
+     * Количество попыток входа подряд с одного IP.
+     */
+    @Value("${security.login-throttle.client-ip.capacity:20}")
+    private int clientIpCapacity;
+
+    /**
+     * За сколько секунд восстанавливаются попытки для IP.
+     */
+    @Value("${security.login-throttle.client-ip.refill-seconds:60}")
+    private long clientIpRefillSeconds;
+
+    /**
+     * Максимальное количество отслеживаемых ключей каждого типа.
+     */
+    @Value("${security.login-throttle.max-keys:100000}")
+    private int maxKeys;
+
+    /**
+     * Ограничитель по username.
+     */
+    private KeyedRateLimiter usernameLimiter;
+
+    /**
+     * Ограничитель по IP клиента.
+     */
+    private KeyedRateLimiter clientIpLimiter;
+
+    /**
+     * Создать ограничители и запустить очистку неактивных ключей.
+     */
+    @PostConstruct
+    public void init() {
+        if (!enabled) {
+            return;
+        }
+
+        usernameLimiter = new KeyedRateLimiter(usernameCapacity, usernameRefillSeconds, maxKeys);
+        clientIpLimiter = new KeyedRateLimiter(clientIpCapacity, clientIpRefillSeconds, maxKeys);
+        scheduler.scheduleAtFixedRate(() -> {
+            usernameLimiter.evictIdle();
+            clientIpLimiter.evictIdle();
+        }, Math.max(usernameRefillSeconds, clientIpRefillSeconds), TimeUnit.SECONDS);
+    }
+
+    /**
+     * Учесть попытку входа.
+     *
+     * @param username - username
+     * @param clientIp - IP клиента, null если неизвестен
+     * @throws LoginThrottledException если частота попыток превышена
+     */
+    public void acquire(final String username,
+                        final String clientIp) {
+        if (!enabled) {
+            return;
+        }
+
+        long waitNanos = clientIp == null ? 0 : clientIpLimiter.tryAcquire(clientIp);
+        if (waitNanos == 0 && username != null) {
+            waitNanos = usernameLimiter.tryAcquire(username);
+        }
+
+        if (waitNanos > 0) {
+            throw new LoginThrottledException(Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos) + 1));
+        }
+    }
+}
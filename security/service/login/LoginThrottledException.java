@@ -0,0 +1,20 @@
+package security.service.login;
+
+import org.springframework.http.HttpStatus;
+import security.service.util.RetryLaterException;
+
+/**
+ * Исключение, выбрасываемое, когда превышена частота попыток входа.
+ * Превращается в ответ 429 с хедером Retry-After.
+ */
+public class LoginThrottledException extends RetryLaterException {
+    /**
+     * Создать исключение.
+     *
+     * @param retryAfterSeconds - через сколько секунд клиенту стоит повторить запрос
+     */
+    public LoginThrottledException(final long retryAfterSeconds) {
+        super(HttpStatus.TOO_MANY_REQUESTS, "Слишком много попыток входа, повторите запрос позже",
+            retryAfterSeconds);
+    }
+}
@@ -0,0 +1,76 @@
+package security.service.login;
+
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.web.authentication.WebAuthenticationDetails;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+/**
+ * AuthenticationProvider, ограничивающий частоту попыток входа до передачи их исходному провайдеру.
+ */
+@RequiredArgsConstructor
+public class ThrottlingAuthenticationProvider implements AuthenticationProvider {
+    /**
+     * Исходный AuthenticationProvider.
+     */
+    private final AuthenticationProvider delegate;
+
+    /**
+     * Ограничение частоты попыток входа.
+     */
+    private final LoginThrottle loginThrottle;
+
+    /**
+     * Определение IP клиента за доверенными прокси.
+     */
+    private final ClientIpResolver clientIpResolver;
+
+    /**
+     * Аутентифицировать пользователя, если частота попыток не превышена.
+     *
+     * @param authentication - данные для входа
+     * @return результат аутентификации
+     */
+    @Override
+    public Authentication authenticate(final Authentication authentication) {
+        loginThrottle.acquire(authentication.getName(), resolveClientIp(authentication));
+        return delegate.authenticate(authentication);
+    }
+
+    /**
+     * Поддерживается ли тип аутентификации.
+     *
+     * @param authentication - тип аутентификации
+     * @return true, если поддерживается исходным провайдером
+     */
+    @Override
+    public boolean supports(final Class<?> authentication) {
+        return delegate.supports(authentication);
+    }
+
+    /**
+     * Определить IP клиента по текущему запросу с учетом доверенных прокси
+     * или, если запроса нет, по деталям аутентификации.
+     *
+     * @param authentication - данные для входа
+     * @return IP клиента или null, если он неизвестен
+     */
+    private String resolveClientIp(final Authentication authentication) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes instanceof ServletRequestAttributes servletAttributes) {
+            HttpServletRequest request = servletAttributes.getRequest();
+            return clientIpResolver.resolve(request.getRemoteAddr(),
+                request.getHeader(clientIpResolver.getHeader()));
+        }
+
+        if (authentication.getDetails() instanceof WebAuthenticationDetails details) {
+            return details.getRemoteAddress();
+        }
+
+        return null;
+    }
+}
@@ -0,0 +1,58 @@
+package security.service.metrics;
+
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.security.SignatureException;
+
+/**
+ * Результат JWT-аутентификации запроса.
+ */
+public enum AuthenticationOutcome {
+    /**
+     * Запрос аутентифицирован.
+     */
+    VALID,
+
+    /**
+     * Время жизни токена истекло.
+     */
+    EXPIRED,
+
+    /**
+     * Подпись токена некорректна.
+     */
+    BAD_SIGNATURE,
+
+    /**
+     * Токен имеет некорректную структуру.
+     */
+    MALFORMED,
+
+    /**
+     * Пользователь из токена не найден.
+     */
+    USER_NOT_FOUND,
+
+    /**
+     * Токен корректен, но не прошел валидацию (например, отозван).
+     */
+    REJECTED;
+
+    /**
+     * Получить результат по исключению, выброшенному при разборе токена.
+     *
+     * @param exception - исключение
+     * @return результат аутентификации
+     */
+    public static AuthenticationOutcome of(final JwtException exception) {
+        if (exception instanceof ExpiredJwtException) {
+            return EXPIRED;
+        }
+
+        if (exception instanceof SignatureException) {
+            return BAD_SIGNATURE;
+        }
+
+        return MALFORMED;
+    }
+}
@@ -0,0 +1,26 @@
+package security.service.metrics;
+
+/**
+ * Этап JWT-аутентификации запроса.
+ */
+public enum AuthenticationPhase {
+    /**
+     * Чтение и предварительная проверка Authorization-хедера.
+     */
+    HEADER_PARSE,
+
+    /**
+     * Разбор токена и проверка подписи.
+     */
+    SIGNATURE_VERIFICATION,
+
+    /**
+     * Получение данных пользователя.
+     */
+    USER_LOOKUP,
+
+    /**
+     * Заполнение Security-контекста.
+     */
+    CONTEXT_POPULATION
+}
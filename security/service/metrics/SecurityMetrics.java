@@ -0,0 +1,256 @@
+package security.service.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import security.service.UserDetailsServiceImpl;
+import security.service.jwt.VerifiedTokenCache;
+import security.service.password.BoundedPasswordEncoder;
+import security.service.user.UserDetailsCache;
+import security.service.user.UserLookupBatcher;
+import security.service.util.CacheCounters;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Метрики Micrometer для цепочки фильтров security.
+ * Если MeterRegistry в приложении нет, все методы ничего не делают и не обращаются к часам.
+ * Теги имеют ограниченное множество значений: этап, результат, тип исключения.
+ */
+@Component
+@RequiredArgsConstructor
+public class SecurityMetrics {
+    /**
+     * Реестр метрик, заданный приложением.
+     */
+    private final ObjectProvider<MeterRegistry> registryProvider;
+
+    /**
+     * Кэш проверенных токенов.
+     */
+    private final VerifiedTokenCache tokenCache;
+
+    /**
+     * Класс для получения данных о пользователях.
+     */
+    private final UserDetailsServiceImpl userDetailsService;
+
+    /**
+     * Реестр метрик, null если метрики выключены.
+     */
+    private MeterRegistry registry;
+
+    /**
+     * Таймеры этапов аутентификации.
+     */
+    private final Map<AuthenticationPhase, Timer> phaseTimers = new EnumMap<>(AuthenticationPhase.class);
+
+    /**
+     * Счетчики результатов аутентификации.
+     */
+    private final Map<AuthenticationOutcome, Counter> outcomeCounters = new EnumMap<>(AuthenticationOutcome.class);
+
+    /**
+     * Счетчики ошибок по типу исключения.
+     */
+    private final Map<Class<?>, Counter> errorCounters = new ConcurrentHashMap<>();
+
+    /**
+     * Таймер выпуска токенов.
+     */
+    private Timer tokenIssueTimer;
+
+    /**
+     * Таймер хеширования паролей.
+     */
+    private Timer passwordHashTimer;
+
+    /**
+     * Зарегистрировать метрики, если в приложении есть MeterRegistry.
+     */
+    @PostConstruct
+    public void init() {
+        registry = registryProvider.getIfAvailable();
+        if (registry == null) {
+            return;
+        }
+
+        for (AuthenticationPhase phase : AuthenticationPhase.values()) {
+            phaseTimers.put(phase, Timer.builder("security.authentication.phase")
+                .description("Время этапа JWT-аутентификации")
+                .tag("phase", phase.name().toLowerCase())
+                .register(registry));
+        }
+
+        for (AuthenticationOutcome outcome : AuthenticationOutcome.values()) {
+            outcomeCounters.put(outcome, Counter.builder("security.authentication.outcome")
+                .description("Количество запросов по результату JWT-аутентификации")
+                .tag("outcome", outcome.name().toLowerCase())
+                .register(registry));
+        }
+
+        tokenIssueTimer = Timer.builder("security.token.issue")
+            .description("Время выпуска JWT-токена")
+            .register(registry);
+
+        passwordHashTimer = Timer.builder("security.password.hash")
+            .description("Время хеширования или проверки пароля")
+            .register(registry);
+
+        bindCache("token", tokenCache.getCounters());
+        Gauge.builder("security.cache.size", tokenCache, VerifiedTokenCache::size)
+            .tag("cache", "token")
+            .register(registry);
+
+        UserDetailsCache userCache = userDetailsService.getCache();
+        if (userCache != null) {
+            bindCache("user", userCache.getCounters());
+            Gauge.builder("security.cache.size", userCache, UserDetailsCache::size)
+                .tag("cache", "user")
+                .register(registry);
+            FunctionCounter.builder("security.cache.loads", userCache, UserDetailsCache::getLoadCount)
+                .tag("cache", "user")
+                .register(registry);
+            FunctionCounter.builder("security.cache.refreshes", userCache, UserDetailsCache::getRefreshCount)
+                .tag("cache", "user")
+                .register(registry);
+        }
+
+        UserLookupBatcher batcher = userDetailsService.getBatcher();
+        if (batcher != null) {
+            FunctionCounter.builder("security.user.batch.calls", batcher, UserLookupBatcher::getBatchCount)
+                .register(registry);
+            FunctionCounter.builder("security.user.batch.lookups", batcher, UserLookupBatcher::getLookupCount)
+                .register(registry);
+        }
+    }
+
+    /**
+     * Включены ли метрики.
+     *
+     * @return true, если в приложении есть MeterRegistry
+     */
+    public boolean isEnabled() {
+        return registry != null;
+    }
+
+    /**
+     * Начать замер времени.
+     *
+     * @return начальная отметка времени, 0 если метрики выключены
+     */
+    public long start() {
+        return registry == null ? 0 : System.nanoTime();
+    }
+
+    /**
+     * Зафиксировать время этапа аутентификации.
+     *
+     * @param phase - этап
+     * @param start - начальная отметка из {@link #start()}
+     */
+    public void recordPhase(final AuthenticationPhase phase,
+                            final long start) {
+        if (registry != null) {
+            phaseTimers.get(phase).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Зафиксировать результат аутентификации.
+     *
+     * @param outcome - результат
+     */
+    public void recordOutcome(final AuthenticationOutcome outcome) {
+        if (registry != null) {
+            outcomeCounters.get(outcome).increment();
+        }
+    }
+
+    /**
+     * Зафиксировать время выпуска токена.
+     *
+     * @param start - начальная отметка из {@link #start()}
+     */
+    public void recordTokenIssue(final long start) {
+        if (registry != null) {
+            tokenIssueTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Зафиксировать время хеширования или проверки пароля.
+     *
+     * @param start - начальная отметка из {@link #start()}
+     */
+    public void recordPasswordHash(final long start) {
+        if (registry != null) {
+            passwordHashTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Зарегистрировать метрики пула хеширования паролей.
+     *
+     * @param passwordEncoder - PasswordEncoder с ограниченным пулом
+     */
+    public void bindPasswordEncoder(final BoundedPasswordEncoder passwordEncoder) {
+        if (registry == null) {
+            return;
+        }
+
+        Gauge.builder("security.password.queue.depth", passwordEncoder, BoundedPasswordEncoder::getQueueDepth)
+            .description("Количество запросов, ожидающих хеширования пароля")
+            .register(registry);
+        Gauge.builder("security.password.active", passwordEncoder, BoundedPasswordEncoder::getActiveCount)
+            .description("Количество выполняющихся хеширований пароля")
+            .register(registry);
+        FunctionCounter.builder("security.password.rejected", passwordEncoder,
+                BoundedPasswordEncoder::getRejectedCount)
+            .description("Количество запросов, отклоненных из-за переполнения пула хеширования")
+            .register(registry);
+    }
+
+    /**
+     * Зафиксировать ошибку, обработанную в фильтре.
+     *
+     * @param exception - исключение
+     */
+    public void recordError(final Throwable exception) {
+        if (registry != null) {
+            errorCounters.computeIfAbsent(exception.getClass(), type -> Counter.builder("security.filter.errors")
+                    .description("Количество ошибок, обработанных в фильтрах security")
+                    .tag("exception", type.getSimpleName())
+                    .register(registry))
+                .increment();
+        }
+    }
+
+    /**
+     * Зарегистрировать счетчики кэша.
+     *
+     * @param cache    - название кэша
+     * @param counters - счетчики кэша
+     */
+    private void bindCache(final String cache,
+                           final CacheCounters counters) {
+        FunctionCounter.builder("security.cache.hits", counters, CacheCounters::getHitCount)
+            .tag("cache", cache)
+            .register(registry);
+        FunctionCounter.builder("security.cache.misses", counters, CacheCounters::getMissCount)
+            .tag("cache", cache)
+            .register(registry);
+        FunctionCounter.builder("security.cache.evictions", counters, CacheCounters::getEvictionCount)
+            .tag("cache", cache)
+            .register(registry);
+    }
+}
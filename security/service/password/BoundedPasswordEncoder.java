@@ -0,0 +1,263 @@
+package security.service.password;
+
+import org.springframework.security.crypto.password.PasswordEncoder;
+import security.service.metrics.SecurityMetrics;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * PasswordEncoder, выполняющий хеширование на отдельном пуле ограниченного размера.
+ * При переполнении очереди запрос сразу отклоняется с {@link PasswordHashingRejectedException},
+ * поэтому всплеск входов не занимает все рабочие потоки сервера.
+ * Ожидание результата ограничено по времени: запрос, не дождавшийся хеширования, тоже отклоняется.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder, AutoCloseable {
+    /**
+     * Исходный PasswordEncoder.
+     */
+    private final PasswordEncoder delegate;
+
+    /**
+     * Пул для хеширования.
+     */
+    private final ThreadPoolExecutor executor;
+
+    /**
+     * Значение Retry-After при отклонении в секундах.
+     */
+    private final long retryAfterSeconds;
+
+    /**
+     * Максимальное время ожидания результата хеширования в миллисекундах.
+     */
+    private final long timeoutMillis;
+
+    /**
+     * Метрики security.
+     */
+    private final SecurityMetrics metrics;
+
+    /**
+     * Количество отклоненных запросов.
+     */
+    private final LongAdder rejected = new LongAdder();
+
+    /**
+     * Создать PasswordEncoder.
+     *
+     * @param delegate          - исходный PasswordEncoder
+     * @param poolSize          - количество потоков хеширования
+     * @param queueCapacity     - максимальное количество ожидающих запросов
+     * @param retryAfterSeconds - значение Retry-After при отклонении в секундах
+     * @param timeoutMillis     - максимальное время ожидания результата хеширования в миллисекундах
+     * @param metrics           - метрики security
+     */
+    public BoundedPasswordEncoder(final PasswordEncoder delegate,
+                                  final int poolSize,
+                                  final int queueCapacity,
+                                  final long retryAfterSeconds,
+                                  final long timeoutMillis,
+                                  final SecurityMetrics metrics) {
+        this.delegate = delegate;
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.timeoutMillis = timeoutMillis;
+        this.metrics = metrics;
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                Thread thread = new Thread(runnable, "password-hashing-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }, new ThreadPoolExecutor.AbortPolicy());
+        this.executor.prestartAllCoreThreads();
+    }
+
+    /**
+     * Захешировать пароль.
+     *
+     * @param rawPassword - пароль
+     * @return хеш пароля
+     */
+    @Override
+    public String encode(final CharSequence rawPassword) {
+        return execute(() -> delegate.encode(rawPassword));
+    }
+
+    /**
+     * Проверить пароль.
+     *
+     * @param rawPassword     - пароль
+     * @param encodedPassword - хеш пароля
+     * @return совпадает ли пароль
+     */
+    @Override
+    public boolean matches(final CharSequence rawPassword,
+                           final String encodedPassword) {
+        return execute(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    /**
+     * Нужно ли перехешировать пароль.
+     *
+     * @param encodedPassword - хеш пароля
+     * @return true, если хеш стоит обновить
+     */
+    @Override
+    public boolean upgradeEncoding(final String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    /**
+     * Получить количество запросов в очереди.
+     *
+     * @return количество запросов в очереди
+     */
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    /**
+     * Получить количество выполняющихся хеширований.
+     *
+     * @return количество выполняющихся хеширований
+     */
+    public int getActiveCount() {
+        return executor.getActiveCount();
+    }
+
+    /**
+     * Получить количество отклоненных запросов.
+     *
+     * @return количество отклоненных запросов
+     */
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    /**
+     * Остановить пул.
+     */
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Получить PasswordEncoder для входа по паролю.
+     * Проверка пароля проходит через пул, а перехеширование устаревшего хеша после успешной проверки
+     * выполняется в потоке вызывающего: пароль уже принят, и вход не должен отклоняться из-за загрузки пула.
+     *
+     * @return PasswordEncoder для AuthenticationProvider
+     */
+    public PasswordEncoder forLogin() {
+        return new LoginPasswordEncoder();
+    }
+
+    /**
+     * Выполнить хеширование на пуле и дождаться результата не дольше timeoutMillis.
+     * Не дождавшаяся задача удаляется из очереди, а запрос отклоняется так же, как при переполнении очереди.
+     * Уже начатое хеширование прервать нельзя (bcrypt не реагирует на interrupt): оно доработает
+     * на своем потоке пула, поэтому одновременно выполняется не больше poolSize хеширований.
+     *
+     * @param task - задача хеширования
+     * @param <T>  - параметр
+     * @return результат хеширования
+     */
+    private <T> T execute(final Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                long start = metrics.start();
+                try {
+                    return task.call();
+                } finally {
+                    metrics.recordPasswordHash(start);
+                }
+            });
+        } catch (RejectedExecutionException exception) {
+            rejected.increment();
+            throw new PasswordHashingRejectedException(retryAfterSeconds);
+        }
+
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException exception) {
+            abandon(future);
+            rejected.increment();
+            throw new PasswordHashingRejectedException(retryAfterSeconds);
+        } catch (InterruptedException exception) {
+            abandon(future);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Ожидание проверки пароля прервано", exception);
+        } catch (ExecutionException exception) {
+            if (exception.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+
+            throw new IllegalStateException(exception.getCause());
+        }
+    }
+
+    /**
+     * Отказаться от задачи, результат которой больше не нужен.
+     * Отмененная задача удаляется из очереди сразу, чтобы не занимать место до того, как пул до нее дойдет.
+     *
+     * @param future - задача
+     */
+    private void abandon(final Future<?> future) {
+        future.cancel(false);
+        if (future instanceof Runnable runnable) {
+            executor.remove(runnable);
+        }
+    }
+
+    /**
+     * PasswordEncoder для входа: проверка через пул, перехеширование в потоке вызывающего.
+     */
+    private final class LoginPasswordEncoder implements PasswordEncoder {
+        /**
+         * Захешировать пароль без ограничения пула: вызывается только после успешной проверки пароля.
+         *
+         * @param rawPassword - пароль
+         * @return хеш пароля
+         */
+        @Override
+        public String encode(final CharSequence rawPassword) {
+            return delegate.encode(rawPassword);
+        }
+
+        /**
+         * Проверить пароль на пуле хеширования.
+         *
+         * @param rawPassword     - пароль
+         * @param encodedPassword - хеш пароля
+         * @return совпадает ли пароль
+         */
+        @Override
+        public boolean matches(final CharSequence rawPassword,
+                               final String encodedPassword) {
+            return BoundedPasswordEncoder.this.matches(rawPassword, encodedPassword);
+        }
+
+        /**
+         * Нужно ли перехешировать пароль.
+         *
+         * @param encodedPassword - хеш пароля
+         * @return true, если хеш стоит обновить
+         */
+        @Override
+        public boolean upgradeEncoding(final String encodedPassword) {
+            return delegate.upgradeEncoding(encodedPassword);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package security.service.password;
+
+/**
+ * Сохранение обновленного хеша пароля после успешного входа.
+ * Приложение объявляет бин этого типа, например поверх UserApi,
+ * чтобы старые хеши переводились на текущий алгоритм и стоимость без сброса паролей.
+ */
+public interface PasswordHashUpgrader {
+    /**
+     * Сохранить новый хеш пароля пользователя.
+     *
+     * @param username        - username
+     * @param encodedPassword - новый хеш пароля
+     */
+    void upgrade(String username, String encodedPassword);
+}
@@ -0,0 +1,20 @@
+package security.service.password;
+
+import org.springframework.http.HttpStatus;
+import security.service.util.RetryLaterException;
+
+/**
+ * Исключение, выбрасываемое, когда пул проверки паролей переполнен или проверка не уложилась в отведенное время.
+ * Превращается в ответ 503 с хедером Retry-After.
+ */
+public class PasswordHashingRejectedException extends RetryLaterException {
+    /**
+     * Создать исключение.
+     *
+     * @param retryAfterSeconds - через сколько секунд клиенту стоит повторить запрос
+     */
+    public PasswordHashingRejectedException(final long retryAfterSeconds) {
+        super(HttpStatus.SERVICE_UNAVAILABLE, "Пул проверки паролей перегружен, повторите запрос позже",
+            retryAfterSeconds);
+    }
+}
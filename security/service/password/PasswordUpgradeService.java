@@ -0,0 +1,71 @@
+package security.service.password;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
+import org.springframework.stereotype.Service;
+import security.service.UserDetailsServiceImpl;
+import security.service.user.UserDetailsCache;
+
+/**
+ * Перехеширование пароля при успешном входе, если его хеш устарел.
+ * Работает, только если в приложении объявлен {@link PasswordHashUpgrader}.
+ */
+@Service
+@RequiredArgsConstructor
+public class PasswordUpgradeService implements UserDetailsPasswordService {
+    /**
+     * Сохранение обновленного хеша, заданное приложением.
+     */
+    private final ObjectProvider<PasswordHashUpgrader> upgraderProvider;
+
+    /**
+     * Класс для получения данных о пользователях.
+     */
+    private final UserDetailsServiceImpl userDetailsService;
+
+    /**
+     * Сохранение обновленного хеша, null если приложение его не задало.
+     */
+    private PasswordHashUpgrader upgrader;
+
+    /**
+     * Получить сохранение обновленного хеша из контекста.
+     */
+    @PostConstruct
+    public void init() {
+        upgrader = upgraderProvider.getIfAvailable();
+    }
+
+    /**
+     * Включено ли перехеширование.
+     *
+     * @return true, если в приложении объявлен {@link PasswordHashUpgrader}
+     */
+    public boolean isEnabled() {
+        return upgrader != null;
+    }
+
+    /**
+     * Сохранить новый хеш пароля пользователя.
+     *
+     * @param user        - данные пользователя
+     * @param newPassword - новый хеш пароля
+     * @return данные пользователя
+     */
+    @Override
+    public UserDetails updatePassword(final UserDetails user,
+                                      final String newPassword) {
+        if (upgrader != null) {
+            upgrader.upgrade(user.getUsername(), newPassword);
+            UserDetailsCache cache = userDetailsService.getCache();
+            if (cache != null) {
+                cache.invalidate(user.getUsername());
+            }
+        }
+
+        return user;
+    }
+}
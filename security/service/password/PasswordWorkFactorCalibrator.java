@@ -0,0 +1,60 @@
+package security.service.password;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * Подбор стоимости bcrypt под целевое время хеширования на текущем процессоре.
+ * Каждое увеличение стоимости на единицу удваивает время хеширования,
+ * поэтому достаточно замерить одну пробную стоимость и экстраполировать.
+ */
+public final class PasswordWorkFactorCalibrator {
+    /**
+     * Стоимость, на которой выполняется замер.
+     */
+    private static final int PROBE_STRENGTH = 8;
+
+    /**
+     * Количество замеров, из которых берется медиана.
+     */
+    private static final int SAMPLES = 5;
+
+    /**
+     * Максимальная стоимость, поддерживаемая bcrypt.
+     */
+    private static final int MAX_STRENGTH = 31;
+
+    /**
+     * Utility-класс.
+     */
+    private PasswordWorkFactorCalibrator() {
+    }
+
+    /**
+     * Подобрать стоимость bcrypt.
+     *
+     * @param targetTime  - целевое время одного хеширования
+     * @param minStrength - минимально допустимая стоимость
+     * @return стоимость bcrypt
+     */
+    public static int calibrateBcryptStrength(final Duration targetTime,
+                                              final int minStrength) {
+        BCryptPasswordEncoder probe = new BCryptPasswordEncoder(PROBE_STRENGTH);
+        probe.encode("calibration");
+
+        long[] samples = new long[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            long start = System.nanoTime();
+            probe.encode("calibration");
+            samples[i] = System.nanoTime() - start;
+        }
+
+        Arrays.sort(samples);
+        double ratio = (double) targetTime.toNanos() / Math.max(1, samples[SAMPLES / 2]);
+        int strength = PROBE_STRENGTH + (int) Math.round(Math.log(ratio) / Math.log(2));
+
+        return Math.min(MAX_STRENGTH, Math.max(minStrength, strength));
+    }
+}
@@ -0,0 +1,78 @@
+package security.service.password;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * PasswordEncoder для алгоритма по умолчанию bcrypt: новые хеши пишутся без префикса {bcrypt},
+ * в том же формате, что хранит и проверяет user-service.
+ * Хеши других алгоритмов с префиксом {id} по-прежнему проверяются через DelegatingPasswordEncoder
+ * и при входе перехешируются в bcrypt без префикса.
+ */
+public class UnprefixedBcryptPasswordEncoder implements PasswordEncoder {
+    /**
+     * Начало префикса алгоритма.
+     */
+    private static final String PREFIX_START = "{";
+
+    /**
+     * bcrypt для новых хешей.
+     */
+    private final BCryptPasswordEncoder bcrypt;
+
+    /**
+     * Проверка хешей всех поддерживаемых алгоритмов.
+     */
+    private final PasswordEncoder delegate;
+
+    /**
+     * Создать PasswordEncoder.
+     *
+     * @param bcrypt   - bcrypt для новых хешей
+     * @param delegate - проверка хешей всех поддерживаемых алгоритмов
+     */
+    public UnprefixedBcryptPasswordEncoder(final BCryptPasswordEncoder bcrypt,
+                                           final PasswordEncoder delegate) {
+        this.bcrypt = bcrypt;
+        this.delegate = delegate;
+    }
+
+    /**
+     * Захешировать пароль bcrypt без префикса.
+     *
+     * @param rawPassword - пароль
+     * @return хеш пароля
+     */
+    @Override
+    public String encode(final CharSequence rawPassword) {
+        return bcrypt.encode(rawPassword);
+    }
+
+    /**
+     * Проверить пароль по хешу любого поддерживаемого алгоритма.
+     *
+     * @param rawPassword     - пароль
+     * @param encodedPassword - хеш пароля
+     * @return совпадает ли пароль
+     */
+    @Override
+    public boolean matches(final CharSequence rawPassword,
+                           final String encodedPassword) {
+        return delegate.matches(rawPassword, encodedPassword);
+    }
+
+    /**
+     * Нужно ли перехешировать пароль: хеш с префиксом или bcrypt с меньшей стоимостью.
+     *
+     * @param encodedPassword - хеш пароля
+     * @return true, если хеш стоит обновить
+     */
+    @Override
+    public boolean upgradeEncoding(final String encodedPassword) {
+        if (encodedPassword == null || encodedPassword.isEmpty()) {
+            return false;
+        }
+
+        return encodedPassword.startsWith(PREFIX_START) || bcrypt.upgradeEncoding(encodedPassword);
+    }
+}
@@ -0,0 +1,166 @@
+package security.service.reactive;
+
+import io.jsonwebtoken.JwtException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.web.server.context.ServerSecurityContextRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import security.service.authority.PrincipalAuthentication;
+import security.service.config.PublicRouteMatcher;
+import security.service.filter.AuthenticationMode;
+import security.service.jwt.JwtToken;
+import security.service.jwt.MalformedTokenException;
+import security.service.jwt.JwtTokenExtractor;
+import security.service.jwt.JwtTokenPreValidator;
+import security.service.jwt.JwtTokenValidator;
+import security.service.jwt.JwtUserClaims;
+import security.service.metrics.AuthenticationOutcome;
+import security.service.metrics.SecurityMetrics;
+
+/**
+ * Reactive-аналог {@link security.service.filter.JwtAuthenticationFilter}:
+ * строит Security-контекст по JWT-токену из Authorization-хедера.
+ * Проверка токена та же, что и в servlet-приложениях, данные пользователя получаются без блокировки event loop.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class JwtServerSecurityContextRepository implements ServerSecurityContextRepository {
+    /**
+     * Префикс Authorization-хедера.
+     */
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    /**
+     * Класс для работы с JWT-токенами.
+     */
+    private final JwtTokenExtractor tokenExtractor;
+
+    /**
+     * Класс для валидации JWT-токенов.
+     */
+    private final JwtTokenValidator tokenValidator;
+
+    /**
+     * Класс для предварительной проверки структуры токенов.
+     */
+    private final JwtTokenPreValidator tokenPreValidator;
+
+    /**
+     * Класс для неблокирующего получения данных о пользователях.
+     */
+    private final ReactiveUserDetailsServiceImpl userDetailsService;
+
+    /**
+     * Класс для получения данных пользователя из claims токена.
+     */
+    private final JwtUserClaims userClaims;
+
+    /**
+     * Метрики security.
+     */
+    private final SecurityMetrics metrics;
+
+    /**
+     * Проверка публичных маршрутов.
+     */
+    private final PublicRouteMatcher publicRouteMatcher;
+
+    /**
+     * Режим построения аутентификации.
+     */
+    @Value("${jwt.authentication-mode:LOOKUP}")
+    private AuthenticationMode authenticationMode;
+
+    /**
+     * Не строить контекст на публичных маршрутах.
+     */
+    @Value("${jwt.filter.skip-public-routes:true}")
+    private boolean skipPublicRoutes;
+
+    /**
+     * Сохранение контекста не требуется: приложение stateless.
+     *
+     * @param exchange - запрос и ответ
+     * @param context  - Security-контекст
+     * @return пустой Mono
+     */
+    @Override
+    public Mono<Void> save(final ServerWebExchange exchange,
+                           final SecurityContext context) {
+        return Mono.empty();
+    }
+
+    /**
+     * Построить Security-контекст по JWT-токену.
+     *
+     * @param exchange - запрос и ответ
+     * @return Security-контекст или пустой Mono, если токена нет или он не прошел валидацию
+     */
+    @Override
+    public Mono<SecurityContext> load(final ServerWebExchange exchange) {
+        if (skipPublicRoutes && publicRouteMatcher.matches(
+            exchange.getRequest().getPath().pathWithinApplication().value())) {
+            return Mono.empty();
+        }
+
+        String authorizationHeader = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        if (authorizationHeader == null || !authorizationHeader.startsWith(BEARER_PREFIX)) {
+            return Mono.empty();
+        }
+
+        String rawToken = authorizationHeader.substring(BEARER_PREFIX.length());
+        if (!tokenPreValidator.isWellFormed(rawToken)) {
+            metrics.recordOutcome(AuthenticationOutcome.MALFORMED);
+            return Mono.error(new MalformedTokenException());
+        }
+
+        JwtToken token;
+        try {
+            token = tokenExtractor.parse(rawToken);
+        } catch (JwtException exception) {
+            metrics.recordOutcome(AuthenticationOutcome.of(exception));
+            return Mono.error(exception);
+        }
+
+        if (token.getSubject() == null) {
+            return Mono.empty();
+        }
+
+        return resolveUser(token)
+            .switchIfEmpty(Mono.fromRunnable(() -> metrics.recordOutcome(AuthenticationOutcome.USER_NOT_FOUND)))
+            .flatMap(userDetails -> {
+                if (!tokenValidator.isValid(token, userDetails)) {
+                    metrics.recordOutcome(AuthenticationOutcome.REJECTED);
+                    return Mono.empty();
+                }
+
+                metrics.recordOutcome(AuthenticationOutcome.VALID);
+                return Mono.just(new SecurityContextImpl(PrincipalAuthentication.of(userDetails)));
+            });
+    }
+
+    /**
+     * Получить данные пользователя для токена в соответствии с режимом аутентификации.
+     *
+     * @param token - разобранный токен
+     * @return данные пользователя
+     */
+    private Mono<UserDetails> resolveUser(final JwtToken token) {
+        Mono<UserDetails> lookup = Mono.defer(() -> userDetailsService.findByUsername(token.getSubject()));
+        if (authenticationMode == AuthenticationMode.CLAIMS) {
+            return Mono.justOrEmpty(userClaims.toUser(token))
+                .cast(UserDetails.class)
+                .switchIfEmpty(lookup);
+        }
+
+        return lookup;
+    }
+}
@@ -0,0 +1,88 @@
+package security.service.reactive;
+
+import io.jsonwebtoken.JwtException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.lang.NonNull;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import security.service.filter.JwtErrorResponses;
+import security.service.metrics.SecurityMetrics;
+import security.service.util.RateLimitedLog;
+
+/**
+ * Reactive-аналог {@link security.service.filter.ExceptionHandlerFilter}:
+ * превращает ошибки JWT-аутентификации в ответ 400 с заранее сериализованным телом.
+ * Остальные ошибки передаются стандартной обработке WebFlux.
+ * Не является бином: создается в {@link ReactiveSecurityConfiguration} и добавляется только в цепочку
+ * Spring Security, иначе WebFlux зарегистрировал бы его еще раз как обычный WebFilter.
+ */
+@Slf4j
+public class ReactiveExceptionHandlerFilter implements WebFilter {
+    /**
+     * Заранее сериализованные ответы об ошибках.
+     */
+    private final JwtErrorResponses errorResponses;
+
+    /**
+     * Метрики security.
+     */
+    private final SecurityMetrics metrics;
+
+    /**
+     * Ограничение логирования ошибок JWT.
+     */
+    private final RateLimitedLog jwtErrorLog;
+
+    /**
+     * Создать фильтр.
+     *
+     * @param errorResponses     - заранее сериализованные ответы об ошибках
+     * @param metrics            - метрики security
+     * @param logMaxPerInterval  - максимальное количество сообщений в логе за интервал
+     * @param logIntervalSeconds - интервал ограничения логирования в секундах
+     */
+    public ReactiveExceptionHandlerFilter(final JwtErrorResponses errorResponses,
+                                          final SecurityMetrics metrics,
+                                          final int logMaxPerInterval,
+                                          final long logIntervalSeconds) {
+        this.errorResponses = errorResponses;
+        this.metrics = metrics;
+        this.jwtErrorLog = new RateLimitedLog(log, "JwtException", logMaxPerInterval, logIntervalSeconds);
+    }
+
+    /**
+     * Метод для обработки исключений.
+     *
+     * @param exchange - запрос и ответ
+     * @param chain    - цепочка фильтров
+     * @return результат обработки запроса
+     */
+    @Override
+    @NonNull
+    public Mono<Void> filter(final @NonNull ServerWebExchange exchange,
+                             final @NonNull WebFilterChain chain) {
+        return chain.filter(exchange)
+            .onErrorResume(JwtException.class, exception -> {
+                metrics.recordError(exception);
+                if (jwtErrorLog.tryAcquire()) {
+                    log.warn("Поймано {} с сообщением: {}", exception.getClass().getSimpleName(),
+                        exception.getMessage());
+                }
+
+                ServerHttpResponse response = exchange.getResponse();
+                if (response.isCommitted()) {
+                    return Mono.error(exception);
+                }
+
+                response.setStatusCode(HttpStatus.BAD_REQUEST);
+                response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+                return response.writeWith(Mono.just(response.bufferFactory()
+                    .wrap(errorResponses.getInvalidTokenBody())));
+            });
+    }
+}
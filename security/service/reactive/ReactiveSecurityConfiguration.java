@@ -0,0 +1,170 @@
+package security.service.reactive;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.authentication.UserDetailsRepositoryReactiveAuthenticationManager;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.util.matcher.ServerWebExchangeMatcher;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import security.service.config.PublicRouteMatcher;
+import security.service.config.SecurityRuntimeHints;
+import security.service.filter.JwtErrorResponses;
+import security.service.login.ClientIpResolver;
+import security.service.login.LoginThrottle;
+import security.service.metrics.SecurityMetrics;
+import security.service.password.BoundedPasswordEncoder;
+import security.service.password.PasswordUpgradeService;
+
+import java.net.InetSocketAddress;
+
+/**
+ * Конфигурация Spring Security для reactive-приложений (WebFlux).
+ */
+@Configuration
+@EnableWebFluxSecurity
+@ImportRuntimeHints(SecurityRuntimeHints.class)
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveSecurityConfiguration {
+    /**
+     * Репозиторий Security-контекста на основе JWT-токенов.
+     */
+    private final JwtServerSecurityContextRepository securityContextRepository;
+
+    /**
+     * Заранее сериализованные ответы об ошибках.
+     */
+    private final JwtErrorResponses errorResponses;
+
+    /**
+     * Метрики security.
+     */
+    private final SecurityMetrics metrics;
+
+    /**
+     * Класс для неблокирующего получения данных о пользователях.
+     */
+    private final ReactiveUserDetailsServiceImpl userDetailsService;
+
+    /**
+     * Класс для шифрования паролей пользователей.
+     */
+    private final PasswordEncoder passwordEncoder;
+
+    /**
+     * Сервис перехеширования устаревших хешей паролей.
+     */
+    private final PasswordUpgradeService passwordUpgradeService;
+
+    /**
+     * Ограничение частоты попыток входа.
+     */
+    private final LoginThrottle loginThrottle;
+
+    /**
+     * Определение IP клиента за доверенными прокси.
+     */
+    private final ClientIpResolver clientIpResolver;
+
+    /**
+     * Проверка публичных маршрутов.
+     */
+    private final PublicRouteMatcher publicRouteMatcher;
+
+    /**
+     * Максимальное количество сообщений об ошибках JWT в логе за интервал.
+     */
+    @Value("${security.error-log.max-per-interval:20}")
+    private int logMaxPerInterval;
+
+    /**
+     * Интервал ограничения логирования в секундах.
+     */
+    @Value("${security.error-log.interval-seconds:60}")
+    private long logIntervalSeconds;
+
+    /**
+     * Конфигурация ServerHttpSecurity.
+     * Фильтр обработки исключений создается здесь, а не бином, чтобы он выполнялся только в цепочке security.
+     *
+     * @param httpSecurity - объект ServerHttpSecurity
+     * @return сконфигурированная цепочка фильтров
+     */
+    @Bean
+    public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity httpSecurity) {
+        return httpSecurity
+            .csrf(ServerHttpSecurity.CsrfSpec::disable)
+            .cors(ServerHttpSecurity.CorsSpec::disable)
+            .httpBasic(ServerHttpSecurity.HttpBasicSpec::disable)
+            .formLogin(ServerHttpSecurity.FormLoginSpec::disable)
+            .authorizeExchange(registry -> registry
+                .matchers(exchange -> publicRouteMatcher.matches(
+                        exchange.getRequest().getPath().pathWithinApplication().value())
+                    ? ServerWebExchangeMatcher.MatchResult.match()
+                    : ServerWebExchangeMatcher.MatchResult.notMatch())
+                .permitAll()
+                .anyExchange()
+                .authenticated())
+            .securityContextRepository(securityContextRepository)
+            .addFilterAt(new ReactiveExceptionHandlerFilter(errorResponses, metrics, logMaxPerInterval,
+                logIntervalSeconds), SecurityWebFiltersOrder.FIRST)
+            .build();
+    }
+
+    /**
+     * Бин ReactiveAuthenticationManager для входа по логину и паролю.
+     * Проверка пароля выполняется вне event loop, частота попыток входа ограничивается по username и IP клиента.
+     * IP берется из запроса, который Spring Security кладет в Reactor-контекст; вне веб-запроса
+     * ограничение действует только по username.
+     * Пользователь загружается в обход кэша, чтобы смена пароля или блокировка действовали сразу.
+     * Перехеширование устаревшего хеша после успешного входа не проходит через ограничение пула хеширования.
+     *
+     * @return ReactiveAuthenticationManager
+     */
+    @Bean
+    public ReactiveAuthenticationManager reactiveAuthenticationManager() {
+        var authenticationManager = new UserDetailsRepositoryReactiveAuthenticationManager(userDetailsService.uncached());
+        authenticationManager.setPasswordEncoder(passwordEncoder instanceof BoundedPasswordEncoder bounded
+            ? bounded.forLogin() : passwordEncoder);
+        if (passwordUpgradeService.isEnabled()) {
+            authenticationManager.setUserDetailsPasswordService((user, newPassword) -> Mono
+                .fromCallable(() -> passwordUpgradeService.updatePassword(user, newPassword))
+                .subscribeOn(Schedulers.boundedElastic()));
+        }
+
+        return authentication -> Mono
+            .deferContextual(context -> Mono.fromRunnable(() -> loginThrottle.acquire(authentication.getName(),
+                resolveClientIp(context.getOrDefault(ServerWebExchange.class, null)))))
+            .then(Mono.defer(() -> authenticationManager.authenticate(authentication)));
+    }
+
+    /**
+     * Определить IP клиента запроса.
+     *
+     * @param exchange - запрос и ответ, null вне веб-запроса
+     * @return IP клиента или null, если он неизвестен
+     */
+    private String resolveClientIp(final ServerWebExchange exchange) {
+        if (exchange == null) {
+            return null;
+        }
+
+        InetSocketAddress remoteAddress = exchange.getRequest().getRemoteAddress();
+        String remoteIp = remoteAddress == null || remoteAddress.getAddress() == null
+            ? null : remoteAddress.getAddress().getHostAddress();
+
+        return clientIpResolver.resolve(remoteIp,
+            exchange.getRequest().getHeaders().getFirst(clientIpResolver.getHeader()));
+    }
+}
@@ -0,0 +1,60 @@
+package security.service.reactive;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.security.core.userdetails.ReactiveUserDetailsService;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import security.service.UserDetailsServiceImpl;
+import security.service.user.UserDetailsCache;
+
+/**
+ * Класс для неблокирующего получения данных о пользователях.
+ * Попадание в кэш возвращается сразу, удаленный вызов выполняется вне event loop.
+ */
+@Service
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveUserDetailsServiceImpl implements ReactiveUserDetailsService {
+    /**
+     * Класс для получения данных о пользователях.
+     */
+    private final UserDetailsServiceImpl userDetailsService;
+
+    /**
+     * Получить данные о пользователе по его username.
+     *
+     * @param username - username
+     * @return данные о пользователе или пустой Mono, если пользователь не найден
+     */
+    @Override
+    public Mono<UserDetails> findByUsername(final String username) {
+        UserDetailsCache cache = userDetailsService.getCache();
+        if (cache != null) {
+            UserDetails cached = cache.getIfPresent(username);
+            if (cached != null) {
+                return Mono.just(cached);
+            }
+        }
+
+        return Mono.fromCallable(() -> userDetailsService.loadUserByUsername(username))
+            .subscribeOn(Schedulers.boundedElastic())
+            .onErrorResume(UsernameNotFoundException.class, exception -> Mono.empty());
+    }
+
+    /**
+     * Получить ReactiveUserDetailsService для входа по паролю, всегда загружающий свежие данные в обход кэша.
+     *
+     * @return ReactiveUserDetailsService без кэша
+     */
+    public ReactiveUserDetailsService uncached() {
+        UserDetailsService uncached = userDetailsService.uncached();
+        return username -> Mono.fromCallable(() -> uncached.loadUserByUsername(username))
+            .subscribeOn(Schedulers.boundedElastic())
+            .onErrorResume(UsernameNotFoundException.class, exception -> Mono.empty());
+    }
+}
@@ -0,0 +1,21 @@
+package security.service.user;
+
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Получение нескольких пользователей одним удаленным вызовом.
+ * Приложение объявляет бин этого типа поверх своего клиента сервиса пользователей,
+ * и одновременные промахи по разным username объединяются в пакеты {@link UserLookupBatcher}.
+ */
+public interface BulkUserLookup {
+    /**
+     * Найти пользователей по username.
+     *
+     * @param usernames - username
+     * @return найденные пользователи по username; ненайденных пользователей в результате нет
+     */
+    Map<String, ? extends UserDetails> findUsersByUsernames(Collection<String> usernames);
+}
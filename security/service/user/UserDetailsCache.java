@@ -0,0 +1,332 @@
+package security.service.user;
+
+import lombok.Getter;
+import org.springframework.security.core.userdetails.UserDetails;
+import security.service.util.BatchEvictor;
+import security.service.util.CacheCounters;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Кэш данных пользователей перед удаленным сервисом пользователей.
+ * Записи живут ttl, за refreshAhead до истечения обновляются в фоне.
+ * Одновременные промахи по одному username приводят только к одному удаленному вызову.
+ */
+public class UserDetailsCache {
+    /**
+     * Функция загрузки пользователя из удаленного сервиса.
+     */
+    private final Function<String, ? extends UserDetails> loader;
+
+    /**
+     * Время жизни записи в миллисекундах.
+     */
+    private final long ttlMillis;
+
+    /**
+     * За сколько миллисекунд до истечения запись обновляется в фоне.
+     */
+    private final long refreshAheadMillis;
+
+    /**
+     * Максимальное количество записей.
+     */
+    private final int maxSize;
+
+    /**
+     * Исполнитель фоновых обновлений.
+     */
+    private final Executor refreshExecutor;
+
+    /**
+     * Записи кэша.
+     */
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * Загрузки, выполняющиеся в данный момент.
+     */
+    private final Map<String, CompletableFuture<UserDetails>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Счетчики кэша.
+     */
+    @Getter
+    private final CacheCounters counters = new CacheCounters();
+
+    /**
+     * Освобождение места в заполненном кэше.
+     */
+    private final BatchEvictor evictor = new BatchEvictor();
+
+    /**
+     * Счетчик версий записей: версия загрузки берется до удаленного вызова, версия прямой записи - в момент записи.
+     */
+    private final AtomicLong versions = new AtomicLong();
+
+    /**
+     * Версия последнего удаления из кэша: загрузки, начатые раньше, не записывают результат.
+     */
+    private final AtomicLong invalidatedVersion = new AtomicLong();
+
+    /**
+     * Количество удаленных вызовов.
+     */
+    private final LongAdder loads = new LongAdder();
+
+    /**
+     * Количество фоновых обновлений.
+     */
+    private final LongAdder refreshes = new LongAdder();
+
+    /**
+     * Создать кэш.
+     *
+     * @param loader          - функция загрузки пользователя
+     * @param ttl             - время жизни записи
+     * @param refreshAhead    - за сколько до истечения обновлять запись в фоне
+     * @param maxSize         - максимальное количество записей
+     * @param refreshExecutor - исполнитель фоновых обновлений
+     */
+    public UserDetailsCache(final Function<String, ? extends UserDetails> loader,
+                            final Duration ttl,
+                            final Duration refreshAhead,
+                            final int maxSize,
+                            final Executor refreshExecutor) {
+        this.loader = loader;
+        this.ttlMillis = ttl.toMillis();
+        this.refreshAheadMillis = refreshAhead.toMillis();
+        this.maxSize = maxSize;
+        this.refreshExecutor = refreshExecutor;
+    }
+
+    /**
+     * Получить пользователя по username.
+     *
+     * @param username - username
+     * @return данные пользователя
+     */
+    public UserDetails get(final String username) {
+        UserDetails cached = getIfPresent(username);
+        if (cached != null) {
+            return cached;
+        }
+
+        counters.recordMiss();
+        return load(username);
+    }
+
+    /**
+     * Получить пользователя, только если он уже есть в кэше. Удаленный вызов не выполняется.
+     *
+     * @param username - username
+     * @return данные пользователя или null, если записи нет или она истекла
+     */
+    public UserDetails getIfPresent(final String username) {
+        long now = System.currentTimeMillis();
+        Entry entry = entries.get(username);
+        if (entry == null || entry.expiresAtMillis <= now) {
+            return null;
+        }
+
+        counters.recordHit();
+        if (entry.expiresAtMillis - now <= refreshAheadMillis) {
+            refreshAsync(username);
+        }
+
+        return entry.user;
+    }
+
+    /**
+     * Удалить пользователя из кэша.
+     *
+     * @param username - username
+     */
+    public void invalidate(final String username) {
+        invalidatedVersion.set(versions.incrementAndGet());
+        entries.remove(username);
+    }
+
+    /**
+     * Очистить кэш.
+     */
+    public void invalidateAll() {
+        invalidatedVersion.set(versions.incrementAndGet());
+        entries.clear();
+    }
+
+    /**
+     * Получить текущее количество записей.
+     *
+     * @return количество записей
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Получить количество удаленных вызовов.
+     *
+     * @return количество удаленных вызовов
+     */
+    public long getLoadCount() {
+        return loads.sum();
+    }
+
+    /**
+     * Получить количество фоновых обновлений.
+     *
+     * @return количество фоновых обновлений
+     */
+    public long getRefreshCount() {
+        return refreshes.sum();
+    }
+
+    /**
+     * Загрузить пользователя, присоединившись к уже идущей загрузке, если она есть.
+     *
+     * @param username - username
+     * @return данные пользователя
+     */
+    private UserDetails load(final String username) {
+        CompletableFuture<UserDetails> future = new CompletableFuture<>();
+        CompletableFuture<UserDetails> existing = inFlight.putIfAbsent(username, future);
+        if (existing != null) {
+            return await(existing);
+        }
+
+        loadInto(username, future);
+        return await(future);
+    }
+
+    /**
+     * Запустить фоновое обновление записи, если оно еще не идет.
+     *
+     * @param username - username
+     */
+    private void refreshAsync(final String username) {
+        CompletableFuture<UserDetails> future = new CompletableFuture<>();
+        if (inFlight.putIfAbsent(username, future) != null) {
+            return;
+        }
+
+        refreshes.increment();
+        try {
+            refreshExecutor.execute(() -> loadInto(username, future));
+        } catch (RuntimeException exception) {
+            inFlight.remove(username, future);
+            future.completeExceptionally(exception);
+        }
+    }
+
+    /**
+     * Выполнить удаленный вызов и сохранить результат.
+     *
+     * @param username - username
+     * @param future   - future, в которую передается результат
+     */
+    private void loadInto(final String username,
+                          final CompletableFuture<UserDetails> future) {
+        try {
+            loads.increment();
+            long version = versions.incrementAndGet();
+            UserDetails user = loader.apply(username);
+            if (user != null) {
+                put(username, user, version);
+            }
+
+            future.complete(user);
+        } catch (Throwable throwable) {
+            future.completeExceptionally(throwable);
+        } finally {
+            inFlight.remove(username, future);
+        }
+    }
+
+    /**
+     * Поместить пользователя в кэш, освободив место при необходимости.
+     * Используется для записи свежих данных, загруженных в обход кэша: такая запись новее
+     * любой загрузки, начатой до нее, и не перезаписывается ее результатом.
+     *
+     * @param username - username
+     * @param user     - данные пользователя
+     */
+    public void put(final String username,
+                    final UserDetails user) {
+        put(username, user, versions.incrementAndGet());
+    }
+
+    /**
+     * Поместить пользователя в кэш, если в нем нет записи более поздней версии.
+     * Загрузка, начатая до записи свежих данных, может завершиться после нее и не должна вернуть старое состояние
+     * пользователя (например, снять блокировку).
+     *
+     * @param username - username
+     * @param user     - данные пользователя
+     * @param version  - версия записи
+     */
+    private void put(final String username,
+                     final UserDetails user,
+                     final long version) {
+        if (version < invalidatedVersion.get()) {
+            return;
+        }
+
+        if (entries.size() >= maxSize && !entries.containsKey(username)) {
+            evictor.evictBatch(entries, maxSize, this::evict);
+        }
+
+        Entry entry = new Entry(user, System.currentTimeMillis() + ttlMillis, version);
+        entries.merge(username, entry,
+            (current, candidate) -> current.version > candidate.version ? current : candidate);
+    }
+
+    /**
+     * Удалить запись, если она не была заменена другим потоком.
+     *
+     * @param username - username
+     * @param entry    - запись
+     */
+    private void evict(final String username,
+                       final Entry entry) {
+        if (entries.remove(username, entry)) {
+            counters.recordEviction();
+        }
+    }
+
+    /**
+     * Дождаться результата загрузки.
+     *
+     * @param future - future загрузки
+     * @return данные пользователя
+     */
+    private static UserDetails await(final CompletableFuture<UserDetails> future) {
+        try {
+            return future.join();
+        } catch (CompletionException exception) {
+            if (exception.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+
+            throw exception;
+        }
+    }
+
+    /**
+     * Запись кэша.
+     *
+     * @param user            - данные пользователя
+     * @param expiresAtMillis - момент истечения записи
+     * @param version         - версия записи
+     */
+    private record Entry(UserDetails user, long expiresAtMillis, long version) {
+    }
+}
@@ -0,0 +1,209 @@
+package security.service.user;
+
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Объединение одновременных запросов пользователей в пакетные вызовы {@link BulkUserLookup}.
+ * Запросы копятся не дольше window или до maxBatchSize username, затем выполняется один вызов,
+ * и результаты раздаются ожидающим запросам. Повторные запросы одного username в пакете объединяются.
+ */
+public class UserLookupBatcher {
+    /**
+     * Пакетное получение пользователей.
+     */
+    private final BulkUserLookup bulkLookup;
+
+    /**
+     * Максимальное время ожидания пакета в наносекундах.
+     */
+    private final long windowNanos;
+
+    /**
+     * Максимальное количество username в пакете.
+     */
+    private final int maxBatchSize;
+
+    /**
+     * Планировщик отправки пакетов по истечении окна.
+     */
+    private final ScheduledExecutorService scheduler;
+
+    /**
+     * Исполнитель пакетных вызовов, отправленных по истечении окна.
+     */
+    private final Executor lookupExecutor;
+
+    /**
+     * Текущий собираемый пакет, null если пакета нет.
+     */
+    private Batch current;
+
+    /**
+     * Количество пакетных вызовов.
+     */
+    private final LongAdder batches = new LongAdder();
+
+    /**
+     * Количество username, полученных пакетными вызовами.
+     */
+    private final LongAdder lookups = new LongAdder();
+
+    /**
+     * Создать объединитель запросов.
+     *
+     * @param bulkLookup     - пакетное получение пользователей
+     * @param window         - максимальное время ожидания пакета
+     * @param maxBatchSize   - максимальное количество username в пакете
+     * @param scheduler      - планировщик отправки пакетов
+     * @param lookupExecutor - исполнитель пакетных вызовов, чтобы медленный вызов не задерживал планировщик
+     */
+    public UserLookupBatcher(final BulkUserLookup bulkLookup,
+                             final Duration window,
+                             final int maxBatchSize,
+                             final ScheduledExecutorService scheduler,
+                             final Executor lookupExecutor) {
+        this.bulkLookup = bulkLookup;
+        this.windowNanos = window.toNanos();
+        this.maxBatchSize = maxBatchSize;
+        this.scheduler = scheduler;
+        this.lookupExecutor = lookupExecutor;
+    }
+
+    /**
+     * Получить пользователя в составе ближайшего пакета.
+     *
+     * @param username - username
+     * @return данные пользователя
+     * @throws UsernameNotFoundException если пользователь не найден
+     */
+    public UserDetails load(final String username) {
+        CompletableFuture<UserDetails> future;
+        Batch full = null;
+        synchronized (this) {
+            boolean scheduled = true;
+            if (current == null) {
+                Batch batch = new Batch();
+                current = batch;
+                try {
+                    scheduler.schedule(() -> flush(batch), windowNanos, TimeUnit.NANOSECONDS);
+                } catch (RejectedExecutionException exception) {
+                    scheduled = false;
+                }
+            }
+
+            future = current.futures.computeIfAbsent(username, key -> new CompletableFuture<>());
+            if (!scheduled || current.futures.size() >= maxBatchSize) {
+                full = current;
+                current = null;
+            }
+        }
+
+        if (full != null) {
+            execute(full);
+        }
+
+        return await(future);
+    }
+
+    /**
+     * Получить количество пакетных вызовов.
+     *
+     * @return количество пакетных вызовов
+     */
+    public long getBatchCount() {
+        return batches.sum();
+    }
+
+    /**
+     * Получить количество username, полученных пакетными вызовами.
+     *
+     * @return количество username
+     */
+    public long getLookupCount() {
+        return lookups.sum();
+    }
+
+    /**
+     * Отправить пакет по истечении окна, если он еще не отправлен по размеру.
+     *
+     * @param batch - пакет
+     */
+    private void flush(final Batch batch) {
+        synchronized (this) {
+            if (current != batch) {
+                return;
+            }
+
+            current = null;
+        }
+
+        try {
+            lookupExecutor.execute(() -> execute(batch));
+        } catch (RejectedExecutionException exception) {
+            batch.futures.values().forEach(future -> future.completeExceptionally(exception));
+        }
+    }
+
+    /**
+     * Выполнить пакетный вызов и раздать результаты.
+     *
+     * @param batch - пакет
+     */
+    private void execute(final Batch batch) {
+        batches.increment();
+        lookups.add(batch.futures.size());
+        try {
+            Map<String, ? extends UserDetails> users = bulkLookup.findUsersByUsernames(batch.futures.keySet());
+            batch.futures.forEach((username, future) -> {
+                UserDetails user = users.get(username);
+                if (user != null) {
+                    future.complete(user);
+                } else {
+                    future.completeExceptionally(new UsernameNotFoundException("Пользователь не найден"));
+                }
+            });
+        } catch (Throwable throwable) {
+            batch.futures.values().forEach(future -> future.completeExceptionally(throwable));
+        }
+    }
+
+    /**
+     * Дождаться результата пакета.
+     *
+     * @param future - future запроса
+     * @return данные пользователя
+     */
+    private static UserDetails await(final CompletableFuture<UserDetails> future) {
+        try {
+            return future.join();
+        } catch (CompletionException exception) {
+            if (exception.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+
+            throw exception;
+        }
+    }
+
+    /**
+     * Собираемый пакет.
+     */
+    private static final class Batch {
+        /**
+         * Ожидающие запросы по username.
+         */
+        private final Map<String, CompletableFuture<UserDetails>> futures = new LinkedHashMap<>();
+    }
+}
@@ -0,0 +1,52 @@
+package security.service.util;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiConsumer;
+
+/**
+ * Освобождение места в заполненном кэше пакетами.
+ * За один раз удаляется заданная доля записей, поэтому полный проход по кэшу
+ * выполняется не на каждой вставке, а один раз на много вставок.
+ * Одновременно освобождение выполняет только один поток, остальные не ждут его.
+ */
+public class BatchEvictor {
+    /**
+     * Какая доля записей удаляется за один раз, в процентах.
+     */
+    private static final int BATCH_PERCENT = 10;
+
+    /**
+     * Выполняется ли освобождение места в данный момент.
+     */
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    /**
+     * Удалить пакет записей, если другой поток уже не делает этого.
+     *
+     * @param entries  - записи кэша
+     * @param capacity - максимальное количество записей
+     * @param evictor  - удаление одной записи с учетом счетчиков кэша
+     * @param <K>      - тип ключа
+     * @param <V>      - тип записи
+     */
+    public <K, V> void evictBatch(final Map<K, V> entries,
+                                  final int capacity,
+                                  final BiConsumer<K, V> evictor) {
+        if (!running.compareAndSet(false, true)) {
+            return;
+        }
+
+        try {
+            int batchSize = Math.max(1, capacity * BATCH_PERCENT / 100);
+            Iterator<Map.Entry<K, V>> iterator = entries.entrySet().iterator();
+            for (int i = 0; i < batchSize && iterator.hasNext(); i++) {
+                Map.Entry<K, V> next = iterator.next();
+                evictor.accept(next.getKey(), next.getValue());
+            }
+        } finally {
+            running.set(false);
+        }
+    }
+}
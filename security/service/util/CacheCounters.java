@@ -0,0 +1,72 @@
+package security.service.util;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Счетчики попаданий, промахов и вытеснений кэша.
+ * Безопасны для конкурентного обновления из множества потоков.
+ */
+public class CacheCounters {
+    /**
+     * Количество попаданий.
+     */
+    private final LongAdder hits = new LongAdder();
+
+    /**
+     * Количество промахов.
+     */
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Количество вытеснений.
+     */
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Зафиксировать попадание.
+     */
+    public void recordHit() {
+        hits.increment();
+    }
+
+    /**
+     * Зафиксировать промах.
+     */
+    public void recordMiss() {
+        misses.increment();
+    }
+
+    /**
+     * Зафиксировать вытеснение.
+     */
+    public void recordEviction() {
+        evictions.increment();
+    }
+
+    /**
+     * Получить количество попаданий.
+     *
+     * @return количество попаданий
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Получить количество промахов.
+     *
+     * @return количество промахов
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Получить количество вытеснений.
+     *
+     * @return количество вытеснений
+     */
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+}
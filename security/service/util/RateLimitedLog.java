@@ -0,0 +1,93 @@
+package security.service.util;
+
+import org.slf4j.Logger;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Ограничение количества однотипных сообщений в логе.
+ * В каждом интервале пропускается не больше заданного количества сообщений,
+ * остальные подсчитываются, и в начале следующего интервала пишется итог с числом подавленных.
+ */
+public class RateLimitedLog {
+    /**
+     * Логгер для итоговых сообщений.
+     */
+    private final Logger log;
+
+    /**
+     * Название группы сообщений для итоговых сообщений.
+     */
+    private final String name;
+
+    /**
+     * Максимальное количество сообщений в интервале.
+     */
+    private final int maxPerInterval;
+
+    /**
+     * Длительность интервала в наносекундах.
+     */
+    private final long intervalNanos;
+
+    /**
+     * Начало текущего интервала.
+     */
+    private final AtomicLong intervalStart = new AtomicLong(System.nanoTime());
+
+    /**
+     * Количество сообщений в текущем интервале.
+     */
+    private final AtomicInteger count = new AtomicInteger();
+
+    /**
+     * Количество подавленных сообщений в текущем интервале.
+     */
+    private final LongAdder suppressed = new LongAdder();
+
+    /**
+     * Создать ограничение.
+     *
+     * @param log             - логгер для итоговых сообщений
+     * @param name            - название группы сообщений
+     * @param maxPerInterval  - максимальное количество сообщений в интервале
+     * @param intervalSeconds - длительность интервала в секундах
+     */
+    public RateLimitedLog(final Logger log,
+                          final String name,
+                          final int maxPerInterval,
+                          final long intervalSeconds) {
+        this.log = log;
+        this.name = name;
+        this.maxPerInterval = maxPerInterval;
+        this.intervalNanos = TimeUnit.SECONDS.toNanos(intervalSeconds);
+    }
+
+    /**
+     * Можно ли записать очередное сообщение.
+     *
+     * @return true, если сообщение стоит записать, false если его нужно подавить
+     */
+    public boolean tryAcquire() {
+        long now = System.nanoTime();
+        long start = intervalStart.get();
+        if (now - start >= intervalNanos && intervalStart.compareAndSet(start, now)) {
+            count.set(0);
+            long dropped = suppressed.sumThenReset();
+            if (dropped > 0) {
+                log.warn("Подавлено {} сообщений \"{}\" за последние {} с", dropped, name,
+                    TimeUnit.NANOSECONDS.toSeconds(now - start));
+            }
+        }
+
+        if (count.incrementAndGet() <= maxPerInterval) {
+            return true;
+        }
+
+        suppressed.increment();
+        return false;
+    }
+}
@@ -0,0 +1,51 @@
+package security.service.util;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Исключение для запросов, отклоненных из-за перегрузки или ограничения частоты.
+ * Превращается в ответ с указанным статусом и хедером Retry-After.
+ */
+public abstract class RetryLaterException extends ResponseStatusException {
+    /**
+     * Через сколько секунд клиенту стоит повторить запрос.
+     */
+    private final long retryAfterSeconds;
+
+    /**
+     * Создать исключение.
+     *
+     * @param status            - статус ответа
+     * @param reason            - причина отказа
+     * @param retryAfterSeconds - через сколько секунд клиенту стоит повторить запрос
+     */
+    protected RetryLaterException(final HttpStatus status,
+                                  final String reason,
+                                  final long retryAfterSeconds) {
+        super(status, reason);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    /**
+     * Получить значение хедера Retry-After.
+     *
+     * @return через сколько секунд клиенту стоит повторить запрос
+     */
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+
+    /**
+     * Хедеры ответа: Retry-After.
+     *
+     * @return хедеры ответа
+     */
+    @Override
+    public HttpHeaders getHeaders() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        return headers;
+    }
+}
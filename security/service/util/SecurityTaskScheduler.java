@@ -0,0 +1,47 @@
+package security.service.util;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Планировщик фоновых задач модуля security (очистка кэшей и т.п.).
+ * Использует один daemon-поток и не зависит от наличия TaskScheduler в приложении.
+ */
+@Component
+public class SecurityTaskScheduler {
+    /**
+     * Исполнитель фоновых задач.
+     */
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "security-scheduler");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Запускать задачу с фиксированным интервалом.
+     *
+     * @param task   - задача
+     * @param period - интервал
+     * @param unit   - единица измерения интервала
+     * @return запланированная задача
+     */
+    public ScheduledFuture<?> scheduleAtFixedRate(final Runnable task,
+                                                  final long period,
+                                                  final TimeUnit unit) {
+        return executor.scheduleAtFixedRate(task, period, period, unit);
+    }
+
+    /**
+     * Остановить планировщик.
+     */
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
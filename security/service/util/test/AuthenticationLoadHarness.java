@@ -0,0 +1,269 @@
+package security.service.util.test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.SneakyThrows;
+import org.springframework.http.HttpStatusCode;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.lang.management.ThreadMXBean;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.ToIntFunction;
+
+/**
+ * Нагрузочная проверка цепочки аутентификации.
+ * Тест приложения поднимает встроенный сервер с модулем и передает функцию,
+ * которая выполняет запрос с заданным Authorization-хедером и возвращает статус ответа.
+ * Для каждого количества клиентов измеряются пропускная способность, перцентили задержки
+ * и процессорное время на запрос; результаты записываются в JSON для сравнения между релизами.
+ * Клиенты работают в том же процессе, поэтому из процессорного времени процесса вычитается время
+ * самих клиентов (ThreadMXBean.getCurrentThreadCpuTime в каждом клиенте). Остаются сервер и фоновые потоки JVM.
+ * Для виртуальных потоков время потока недоступно, и процессорное время на запрос не считается.
+ */
+public class AuthenticationLoadHarness {
+    /**
+     * Набор Authorization-хедеров.
+     */
+    private final TokenMix tokenMix;
+
+    /**
+     * Выполнение запроса: Authorization-хедер или null, результат - статус ответа.
+     */
+    private final ToIntFunction<String> request;
+
+    /**
+     * Прогрев перед каждым шагом.
+     */
+    private final Duration warmup;
+
+    /**
+     * Длительность измерения на каждом шаге.
+     */
+    private final Duration duration;
+
+    /**
+     * Создать нагрузочную проверку.
+     *
+     * @param tokenMix - набор Authorization-хедеров
+     * @param request  - выполнение запроса
+     * @param warmup   - прогрев перед каждым шагом
+     * @param duration - длительность измерения на каждом шаге
+     */
+    public AuthenticationLoadHarness(final TokenMix tokenMix,
+                                     final ToIntFunction<String> request,
+                                     final Duration warmup,
+                                     final Duration duration) {
+        this.tokenMix = tokenMix;
+        this.request = request;
+        this.warmup = warmup;
+        this.duration = duration;
+    }
+
+    /**
+     * Выполнить шаги для каждого количества клиентов.
+     *
+     * @param concurrencies  - количества одновременных клиентов
+     * @param virtualThreads - выполнять ли клиентов на виртуальных потоках
+     * @return результаты шагов
+     */
+    public List<LoadTestResult> run(final int[] concurrencies,
+                                    final boolean virtualThreads) {
+        List<LoadTestResult> results = new ArrayList<>();
+        for (int concurrency : concurrencies) {
+            measure(concurrency, virtualThreads, warmup);
+            results.add(measure(concurrency, virtualThreads, duration));
+        }
+
+        return results;
+    }
+
+    /**
+     * Записать результаты в JSON-файл.
+     *
+     * @param results - результаты шагов
+     * @param file    - файл
+     */
+    @SneakyThrows
+    public static void writeJson(final List<LoadTestResult> results,
+                                 final Path file) {
+        new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(file.toFile(), results);
+    }
+
+    /**
+     * Выполнить один шаг.
+     *
+     * @param concurrency    - количество одновременных клиентов
+     * @param virtualThreads - выполнять ли клиентов на виртуальных потоках
+     * @param length         - длительность шага
+     * @return результат шага
+     */
+    @SneakyThrows
+    private LoadTestResult measure(final int concurrency,
+                                   final boolean virtualThreads,
+                                   final Duration length) {
+        long cpuStart = processCpuNanos();
+        long start = System.nanoTime();
+        long deadline = start + length.toNanos();
+
+        List<Future<Worker>> futures = new ArrayList<>(concurrency);
+        try (ExecutorService executor = virtualThreads
+            ? Executors.newVirtualThreadPerTaskExecutor()
+            : Executors.newFixedThreadPool(concurrency)) {
+            for (int i = 0; i < concurrency; i++) {
+                futures.add(executor.submit(() -> new Worker().run(deadline)));
+            }
+        }
+
+        long elapsed = System.nanoTime() - start;
+        long cpuEnd = processCpuNanos();
+
+        long errors = 0;
+        int count = 0;
+        long workerCpu = 0;
+        List<Worker> workers = new ArrayList<>(concurrency);
+        for (Future<Worker> future : futures) {
+            Worker worker = future.get();
+            workers.add(worker);
+            errors += worker.errors;
+            count += worker.count;
+            workerCpu = workerCpu < 0 || worker.cpuNanos < 0 ? -1 : workerCpu + worker.cpuNanos;
+        }
+
+        long[] latencies = new long[count];
+        int position = 0;
+        for (Worker worker : workers) {
+            System.arraycopy(worker.latencies, 0, latencies, position, worker.count);
+            position += worker.count;
+        }
+
+        Arrays.sort(latencies);
+        double cpuPerRequest = cpuStart < 0 || workerCpu < 0 || count == 0
+            ? -1 : (cpuEnd - cpuStart - workerCpu) / 1000.0 / count;
+
+        return new LoadTestResult(virtualThreads ? "virtual" : "platform", concurrency, count, errors,
+            count * 1_000_000_000.0 / elapsed, percentile(latencies, 0.5), percentile(latencies, 0.99),
+            percentile(latencies, 0.999), cpuPerRequest);
+    }
+
+    /**
+     * Получить перцентиль задержки.
+     *
+     * @param sorted   - отсортированные задержки в наносекундах
+     * @param quantile - квантиль
+     * @return перцентиль в микросекундах
+     */
+    private static long percentile(final long[] sorted,
+                                   final double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+
+        int index = (int) Math.min(sorted.length - 1, Math.ceil(quantile * sorted.length) - 1);
+        return sorted[Math.max(index, 0)] / 1000;
+    }
+
+    /**
+     * Получить процессорное время процесса.
+     *
+     * @return процессорное время в наносекундах или -1, если недоступно
+     */
+    private static long processCpuNanos() {
+        OperatingSystemMXBean bean = ManagementFactory.getOperatingSystemMXBean();
+        if (bean instanceof com.sun.management.OperatingSystemMXBean sunBean) {
+            return sunBean.getProcessCpuTime();
+        }
+
+        return -1;
+    }
+
+    /**
+     * Получить процессорное время текущего потока.
+     *
+     * @return процессорное время в наносекундах или -1, если недоступно (в том числе для виртуальных потоков)
+     */
+    private static long threadCpuNanos() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (Thread.currentThread().isVirtual() || !bean.isCurrentThreadCpuTimeSupported()
+            || !bean.isThreadCpuTimeEnabled()) {
+            return -1;
+        }
+
+        return bean.getCurrentThreadCpuTime();
+    }
+
+    /**
+     * Клиент, выполняющий запросы до окончания шага.
+     */
+    private final class Worker {
+        /**
+         * Задержки запросов в наносекундах.
+         */
+        private long[] latencies = new long[1024];
+
+        /**
+         * Количество выполненных запросов.
+         */
+        private int count;
+
+        /**
+         * Количество запросов с неожиданным статусом ответа.
+         */
+        private long errors;
+
+        /**
+         * Процессорное время самого клиента в наносекундах, -1 если недоступно.
+         */
+        private long cpuNanos;
+
+        /**
+         * Выполнять запросы до окончания шага.
+         *
+         * @param deadline - момент окончания шага по System.nanoTime()
+         * @return этот клиент
+         */
+        private Worker run(final long deadline) {
+            long cpuStart = threadCpuNanos();
+            long now = System.nanoTime();
+            while (now < deadline) {
+                int index = tokenMix.nextIndex();
+                int status = request.applyAsInt(tokenMix.header(index));
+                long end = System.nanoTime();
+                if (!isExpected(tokenMix.kind(index), status)) {
+                    errors++;
+                }
+
+                if (count == latencies.length) {
+                    latencies = Arrays.copyOf(latencies, count * 2);
+                }
+
+                latencies[count++] = end - now;
+                now = end;
+            }
+
+            cpuNanos = cpuStart < 0 ? -1 : threadCpuNanos() - cpuStart;
+            return this;
+        }
+
+        /**
+         * Соответствует ли статус ответа виду токена.
+         *
+         * @param kind   - вид токена
+         * @param status - статус ответа
+         * @return true, если статус ожидаемый
+         */
+        private boolean isExpected(final TokenMix.TokenKind kind,
+                                   final int status) {
+            return switch (kind) {
+                case VALID -> HttpStatusCode.valueOf(status).is2xxSuccessful();
+                case EXPIRED, FORGED, MISSING -> HttpStatusCode.valueOf(status).is4xxClientError();
+            };
+        }
+    }
+}
@@ -0,0 +1,233 @@
+package security.service.util.test;
+
+import io.jsonwebtoken.JwtException;
+import org.springframework.security.core.userdetails.UserDetails;
+import security.service.jwt.JwtToken;
+import security.service.jwt.JwtTokenExtractor;
+import security.service.jwt.JwtTokenGenerator;
+import security.service.jwt.JwtTokenValidator;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongSupplier;
+import java.util.function.ToIntFunction;
+
+/**
+ * Микробенчмарк отдельных шагов аутентификации в одном потоке:
+ * генерация, разбор и валидация токена и полный проход цепочки фильтров
+ * для валидного, истекшего, поддельного токена и запроса без токена.
+ * Каждый сценарий сначала прогревается, затем измеряются пропускная способность, среднее время
+ * и выделенная текущим потоком память на операцию по ThreadMXBean.getThreadAllocatedBytes.
+ * Проход фильтров передает тест приложения: функция выполняет запрос с заданным Authorization-хедером
+ * через цепочку security без сервера (например, на MockHttpServletRequest) и возвращает статус ответа.
+ * <p>
+ * Это простой цикл, а не JMH: все сценарии выполняются через один и тот же цикл измерения,
+ * и профиль JIT, собранный на предыдущих сценариях, влияет на следующие. Результаты {@link #run(UserDetails)}
+ * годятся только для сравнения одного сценария между версиями. Для сравнения сценариев между собой
+ * каждый сценарий нужно запускать в отдельной JVM через {@link #run(UserDetails, String)}.
+ */
+public class AuthenticationMicrobenchmark {
+    /**
+     * Класс для генерации JWT-токенов.
+     */
+    private final JwtTokenGenerator tokenGenerator;
+
+    /**
+     * Класс для работы с JWT-токенами.
+     */
+    private final JwtTokenExtractor tokenExtractor;
+
+    /**
+     * Класс для валидации JWT-токенов.
+     */
+    private final JwtTokenValidator tokenValidator;
+
+    /**
+     * Фабрика тестовых токенов.
+     */
+    private final JwtTestTokenFactory tokenFactory;
+
+    /**
+     * Проход цепочки фильтров: Authorization-хедер или null, результат - статус ответа.
+     */
+    private final ToIntFunction<String> filterPass;
+
+    /**
+     * Прогрев перед каждым сценарием.
+     */
+    private final Duration warmup;
+
+    /**
+     * Длительность измерения каждого сценария.
+     */
+    private final Duration duration;
+
+    /**
+     * Результаты операций, чтобы JIT не удалил неиспользуемые вычисления.
+     */
+    private long sink;
+
+    /**
+     * Создать микробенчмарк.
+     *
+     * @param tokenGenerator - класс для генерации JWT-токенов
+     * @param tokenExtractor - класс для работы с JWT-токенами
+     * @param tokenValidator - класс для валидации JWT-токенов
+     * @param tokenFactory   - фабрика тестовых токенов
+     * @param filterPass     - проход цепочки фильтров
+     * @param warmup         - прогрев перед каждым сценарием
+     * @param duration       - длительность измерения каждого сценария
+     */
+    public AuthenticationMicrobenchmark(final JwtTokenGenerator tokenGenerator,
+                                        final JwtTokenExtractor tokenExtractor,
+                                        final JwtTokenValidator tokenValidator,
+                                        final JwtTestTokenFactory tokenFactory,
+                                        final ToIntFunction<String> filterPass,
+                                        final Duration warmup,
+                                        final Duration duration) {
+        this.tokenGenerator = tokenGenerator;
+        this.tokenExtractor = tokenExtractor;
+        this.tokenValidator = tokenValidator;
+        this.tokenFactory = tokenFactory;
+        this.filterPass = filterPass;
+        this.warmup = warmup;
+        this.duration = duration;
+    }
+
+    /**
+     * Выполнить все сценарии для пользователя в текущей JVM.
+     *
+     * @param user - пользователь, для которого выпускаются токены
+     * @return результаты сценариев
+     */
+    public List<MicrobenchmarkResult> run(final UserDetails user) {
+        List<MicrobenchmarkResult> results = new ArrayList<>();
+        scenarios(user).forEach((scenario, operation) -> results.add(measure(scenario, operation)));
+
+        return results;
+    }
+
+    /**
+     * Выполнить один сценарий; для сравнимых результатов вызывается в отдельной JVM на каждый сценарий.
+     *
+     * @param user     - пользователь, для которого выпускаются токены
+     * @param scenario - название сценария
+     * @return результат сценария
+     */
+    public MicrobenchmarkResult run(final UserDetails user,
+                                    final String scenario) {
+        LongSupplier operation = scenarios(user).get(scenario);
+        if (operation == null) {
+            throw new IllegalArgumentException("Неизвестный сценарий: " + scenario);
+        }
+
+        return measure(scenario, operation);
+    }
+
+    /**
+     * Построить сценарии для пользователя.
+     *
+     * @param user - пользователь, для которого выпускаются токены
+     * @return операции по названию сценария
+     */
+    private Map<String, LongSupplier> scenarios(final UserDetails user) {
+        String valid = tokenFactory.validToken(user);
+        String expired = tokenFactory.expiredToken(user);
+        String forged = tokenFactory.forgedToken(user);
+        JwtToken parsed = tokenExtractor.parse(valid);
+        String validHeader = tokenFactory.authorizationHeader(valid);
+        String expiredHeader = tokenFactory.authorizationHeader(expired);
+        String forgedHeader = tokenFactory.authorizationHeader(forged);
+
+        Map<String, LongSupplier> scenarios = new LinkedHashMap<>();
+        scenarios.put("generate", () -> tokenGenerator.generate(user).length());
+        scenarios.put("extract-valid", () -> extract(valid));
+        scenarios.put("extract-expired", () -> extract(expired));
+        scenarios.put("extract-forged", () -> extract(forged));
+        scenarios.put("validate", () -> tokenValidator.isValid(parsed, user) ? 1 : 0);
+        scenarios.put("filter-valid", () -> filterPass.applyAsInt(validHeader));
+        scenarios.put("filter-expired", () -> filterPass.applyAsInt(expiredHeader));
+        scenarios.put("filter-forged", () -> filterPass.applyAsInt(forgedHeader));
+        scenarios.put("filter-missing", () -> filterPass.applyAsInt(null));
+
+        return scenarios;
+    }
+
+    /**
+     * Разобрать токен; отказ в разборе - ожидаемый результат для истекших и поддельных токенов.
+     *
+     * @param token - токен
+     * @return значение для sink
+     */
+    private long extract(final String token) {
+        try {
+            return tokenExtractor.parse(token).hashCode();
+        } catch (JwtException exception) {
+            return exception.getClass().hashCode();
+        }
+    }
+
+    /**
+     * Прогреть и измерить сценарий.
+     *
+     * @param scenario  - название сценария
+     * @param operation - операция
+     * @return результат сценария
+     */
+    private MicrobenchmarkResult measure(final String scenario,
+                                         final LongSupplier operation) {
+        loop(operation, warmup);
+
+        long allocatedStart = allocatedBytes();
+        long start = System.nanoTime();
+        long operations = loop(operation, duration);
+        long elapsed = System.nanoTime() - start;
+        long allocatedEnd = allocatedBytes();
+
+        double allocatedPerOperation = allocatedStart < 0 || operations == 0
+            ? -1 : (double) (allocatedEnd - allocatedStart) / operations;
+
+        return new MicrobenchmarkResult(scenario, operations, operations * 1_000_000_000.0 / elapsed,
+            operations == 0 ? 0 : (double) elapsed / operations, allocatedPerOperation);
+    }
+
+    /**
+     * Выполнять операцию до окончания интервала.
+     *
+     * @param operation - операция
+     * @param length    - длительность интервала
+     * @return количество выполненных операций
+     */
+    private long loop(final LongSupplier operation,
+                      final Duration length) {
+        long deadline = System.nanoTime() + length.toNanos();
+        long operations = 0;
+        long result = 0;
+        while (System.nanoTime() < deadline) {
+            result += operation.getAsLong();
+            operations++;
+        }
+
+        sink += result;
+        return operations;
+    }
+
+    /**
+     * Получить объем памяти, выделенной текущим потоком.
+     *
+     * @return объем в байтах или -1, если недоступно
+     */
+    private static long allocatedBytes() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean sunBean && sunBean.isThreadAllocatedMemoryEnabled()) {
+            return sunBean.getThreadAllocatedBytes(Thread.currentThread().threadId());
+        }
+
+        return -1;
+    }
+}
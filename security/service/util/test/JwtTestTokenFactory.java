@@ -0,0 +1,94 @@
+package security.service.util.test;
+
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.Jwts;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+import security.service.jwt.JwtKeyProvider;
+import security.service.jwt.JwtTokenGenerator;
+
+import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Utility-класс для получения валидных и невалидных токенов в тестах и бенчмарках
+ * горячего пути аутентификации.
+ */
+@Component
+@RequiredArgsConstructor
+public class JwtTestTokenFactory {
+    /**
+     * Префикс Authorization-хедера.
+     */
+    public static final String BEARER_PREFIX = "Bearer ";
+
+    /**
+     * Класс для генерации JWT-токенов.
+     */
+    private final JwtTokenGenerator tokenGenerator;
+
+    /**
+     * Класс, хранящий ключи для подписи токенов.
+     */
+    private final JwtKeyProvider keyProvider;
+
+    /**
+     * Получить валидный токен.
+     *
+     * @param userDetails - данные пользователя
+     * @return токен
+     */
+    public String validToken(final UserDetails userDetails) {
+        return tokenGenerator.generate(userDetails);
+    }
+
+    /**
+     * Получить токен с корректной подписью, время жизни которого истекло.
+     *
+     * @param userDetails - данные пользователя
+     * @return токен
+     */
+    public String expiredToken(final UserDetails userDetails) {
+        long now = System.currentTimeMillis();
+        JwtBuilder builder = Jwts.builder();
+        if (keyProvider.getSigningKeyId() != null) {
+            builder.setHeaderParam(JwsHeader.KEY_ID, keyProvider.getSigningKeyId());
+        }
+
+        return builder
+            .setId(UUID.randomUUID().toString())
+            .setSubject(userDetails.getUsername())
+            .setIssuedAt(new Date(now - TimeUnit.HOURS.toMillis(2)))
+            .setExpiration(new Date(now - TimeUnit.HOURS.toMillis(1)))
+            .signWith(keyProvider.getSigningKey(), keyProvider.getAlgorithm())
+            .compact();
+    }
+
+    /**
+     * Получить токен с поддельной подписью.
+     *
+     * @param userDetails - данные пользователя
+     * @return токен
+     */
+    public String forgedToken(final UserDetails userDetails) {
+        String token = validToken(userDetails);
+        int signatureStart = token.lastIndexOf('.') + 1;
+        int position = signatureStart + (token.length() - signatureStart) / 2;
+        char replacement = token.charAt(position) == 'A' ? 'B' : 'A';
+
+        return token.substring(0, position) + replacement + token.substring(position + 1);
+    }
+
+    /**
+     * Получить Authorization-хедер для токена.
+     *
+     * @param token - токен
+     * @return значение Authorization-хедера
+     */
+    public String authorizationHeader(final String token) {
+        return BEARER_PREFIX + token;
+    }
+}
@@ -0,0 +1,118 @@
+package security.service.util.test;
+
+import lombok.SneakyThrows;
+import security.service.login.KeyedRateLimiter;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Нагрузочная проверка {@link KeyedRateLimiter}: несколько потоков одновременно запрашивают
+ * разрешения для случайных ключей. Проверяется, что ни один ключ не получил больше разрешений,
+ * чем позволяет ведро за время проверки, и что количество ключей остается ограниченным,
+ * даже если ключей больше, чем помещается в таблицу.
+ */
+public class KeyedRateLimiterStressHarness {
+    /**
+     * Размер ведра.
+     */
+    private final int capacity;
+
+    /**
+     * За сколько секунд ведро восстанавливается полностью.
+     */
+    private final long refillSeconds;
+
+    /**
+     * Максимальное количество отслеживаемых ключей.
+     */
+    private final int maxKeys;
+
+    /**
+     * Создать проверку.
+     *
+     * @param capacity      - размер ведра
+     * @param refillSeconds - за сколько секунд ведро восстанавливается полностью
+     * @param maxKeys       - максимальное количество отслеживаемых ключей
+     */
+    public KeyedRateLimiterStressHarness(final int capacity,
+                                         final long refillSeconds,
+                                         final int maxKeys) {
+        this.capacity = capacity;
+        this.refillSeconds = refillSeconds;
+        this.maxKeys = maxKeys;
+    }
+
+    /**
+     * Выполнить проверку.
+     *
+     * @param threads  - количество потоков
+     * @param keys     - количество различных ключей
+     * @param duration - длительность проверки
+     * @return результат проверки
+     */
+    @SneakyThrows
+    public RateLimiterStressResult run(final int threads,
+                                       final int keys,
+                                       final Duration duration) {
+        KeyedRateLimiter limiter = new KeyedRateLimiter(capacity, refillSeconds, maxKeys);
+        String[] keyNames = new String[keys];
+        for (int i = 0; i < keys; i++) {
+            keyNames[i] = "key-" + i;
+        }
+
+        AtomicLongArray allowedPerKey = new AtomicLongArray(keys);
+        long start = System.nanoTime();
+        long deadline = start + duration.toNanos();
+
+        List<Future<Long>> futures = new ArrayList<>(threads);
+        try (ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(() -> {
+                    long attempts = 0;
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    while (System.nanoTime() < deadline) {
+                        int key = random.nextInt(keys);
+                        if (limiter.tryAcquire(keyNames[key]) == 0) {
+                            allowedPerKey.incrementAndGet(key);
+                        }
+
+                        attempts++;
+                    }
+
+                    return attempts;
+                }));
+            }
+        }
+
+        long elapsed = System.nanoTime() - start;
+        long attempts = 0;
+        for (Future<Long> future : futures) {
+            attempts += future.get();
+        }
+
+        long emissionIntervalNanos = TimeUnit.SECONDS.toNanos(refillSeconds) / capacity;
+        long allowedBound = capacity + (elapsed + emissionIntervalNanos - 1) / emissionIntervalNanos;
+        long allowed = 0;
+        long maxAllowed = 0;
+        int violations = 0;
+        for (int i = 0; i < keys; i++) {
+            long keyAllowed = allowedPerKey.get(i);
+            allowed += keyAllowed;
+            maxAllowed = Math.max(maxAllowed, keyAllowed);
+            if (keyAllowed > allowedBound) {
+                violations++;
+            }
+        }
+
+        return new RateLimiterStressResult(threads, keys, attempts, allowed,
+            attempts * 1_000_000_000.0 / elapsed, maxAllowed, allowedBound, violations, limiter.size());
+    }
+}
@@ -0,0 +1,54 @@
+package security.service.util.test;
+
+import lombok.Value;
+
+/**
+ * Результат одного шага нагрузочной проверки.
+ */
+@Value
+public class LoadTestResult {
+    /**
+     * Исполнитель запросов: platform или virtual.
+     */
+    String executor;
+
+    /**
+     * Количество одновременных клиентов.
+     */
+    int concurrency;
+
+    /**
+     * Количество выполненных запросов.
+     */
+    long requests;
+
+    /**
+     * Количество запросов с неожиданным статусом ответа.
+     */
+    long errors;
+
+    /**
+     * Запросов в секунду.
+     */
+    double throughput;
+
+    /**
+     * Медиана задержки в микросекундах.
+     */
+    long p50Micros;
+
+    /**
+     * 99-й перцентиль задержки в микросекундах.
+     */
+    long p99Micros;
+
+    /**
+     * 99.9-й перцентиль задержки в микросекундах.
+     */
+    long p999Micros;
+
+    /**
+     * Процессорное время процесса без учета клиентов на запрос в микросекундах, -1 если недоступно.
+     */
+    double cpuMicrosPerRequest;
+}
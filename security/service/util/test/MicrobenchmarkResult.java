@@ -0,0 +1,34 @@
+package security.service.util.test;
+
+import lombok.Value;
+
+/**
+ * Результат одного сценария микробенчмарка.
+ */
+@Value
+public class MicrobenchmarkResult {
+    /**
+     * Название сценария.
+     */
+    String scenario;
+
+    /**
+     * Количество выполненных операций.
+     */
+    long operations;
+
+    /**
+     * Операций в секунду.
+     */
+    double throughput;
+
+    /**
+     * Среднее время операции в наносекундах.
+     */
+    double averageNanos;
+
+    /**
+     * Выделенная потоком память на операцию в байтах, -1 если недоступно.
+     */
+    double allocatedBytesPerOperation;
+}
@@ -0,0 +1,54 @@
+package security.service.util.test;
+
+import lombok.Value;
+
+/**
+ * Результат нагрузочной проверки ограничителя частоты.
+ */
+@Value
+public class RateLimiterStressResult {
+    /**
+     * Количество потоков.
+     */
+    int threads;
+
+    /**
+     * Количество различных ключей.
+     */
+    int keys;
+
+    /**
+     * Количество попыток.
+     */
+    long attempts;
+
+    /**
+     * Количество разрешенных попыток.
+     */
+    long allowed;
+
+    /**
+     * Попыток в секунду.
+     */
+    double throughput;
+
+    /**
+     * Максимальное количество разрешений, выданных одному ключу.
+     */
+    long maxAllowedPerKey;
+
+    /**
+     * Допустимое количество разрешений на ключ за время проверки.
+     */
+    long allowedBoundPerKey;
+
+    /**
+     * Количество ключей, получивших больше допустимого количества разрешений.
+     */
+    int violations;
+
+    /**
+     * Количество отслеживаемых ключей после проверки.
+     */
+    int trackedKeys;
+}
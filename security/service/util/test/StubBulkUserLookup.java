@@ -0,0 +1,87 @@
+package security.service.util.test;
+
+import org.springframework.security.core.userdetails.UserDetails;
+import security.service.user.BulkUserLookup;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Локальная заглушка пакетного сервиса пользователей для тестов
+ * с настраиваемой задержкой ответа и подсчетом вызовов.
+ * Не является бином: тест объявляет ее сам, чтобы включить объединение запросов.
+ */
+public class StubBulkUserLookup implements BulkUserLookup {
+    /**
+     * Пользователи по username.
+     */
+    private final Map<String, UserDetails> users = new ConcurrentHashMap<>();
+
+    /**
+     * Задержка ответа.
+     */
+    private final Duration latency;
+
+    /**
+     * Количество вызовов.
+     */
+    private final LongAdder calls = new LongAdder();
+
+    /**
+     * Создать заглушку.
+     *
+     * @param latency - задержка ответа
+     */
+    public StubBulkUserLookup(final Duration latency) {
+        this.latency = latency;
+    }
+
+    /**
+     * Добавить пользователя.
+     *
+     * @param user - данные пользователя
+     * @return эта заглушка
+     */
+    public StubBulkUserLookup add(final UserDetails user) {
+        users.put(user.getUsername(), user);
+        return this;
+    }
+
+    /**
+     * Найти пользователей по username после задержки.
+     *
+     * @param usernames - username
+     * @return найденные пользователи по username
+     */
+    @Override
+    public Map<String, UserDetails> findUsersByUsernames(final Collection<String> usernames) {
+        calls.increment();
+        if (!latency.isZero()) {
+            LockSupport.parkNanos(latency.toNanos());
+        }
+
+        Map<String, UserDetails> found = new HashMap<>();
+        for (String username : usernames) {
+            UserDetails user = users.get(username);
+            if (user != null) {
+                found.put(username, user);
+            }
+        }
+
+        return found;
+    }
+
+    /**
+     * Получить количество вызовов.
+     *
+     * @return количество вызовов
+     */
+    public long getCallCount() {
+        return calls.sum();
+    }
+}
@@ -0,0 +1,109 @@
+package security.service.util.test;
+
+import transfer.contract.domain.user.UserRole;
+import transfer.contract.domain.user.UserTo;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Локальная заглушка UserApi.findUserByUsername для тестов кэша и загрузки пользователей:
+ * настраиваемая задержка ответа, подсчет вызовов и изменение пользователя во время теста.
+ * Метод передается как загрузчик так же, как userApi::findUserByUsername в UserDetailsServiceImpl.
+ */
+public class StubUserApi {
+    /**
+     * Пароль пользователей по умолчанию.
+     */
+    private static final String DEFAULT_PASSWORD = "$2a$10$NIC5fTNK1Rt6ANhk4JW.befENq3T7m8FJysyM2P5OvoTwSHINxea2";
+
+    /**
+     * Пользователи по username.
+     */
+    private final Map<String, UserTo> users = new ConcurrentHashMap<>();
+
+    /**
+     * Задержка ответа.
+     */
+    private final Duration latency;
+
+    /**
+     * Количество вызовов.
+     */
+    private final LongAdder calls = new LongAdder();
+
+    /**
+     * Создать заглушку.
+     *
+     * @param latency - задержка ответа
+     */
+    public StubUserApi(final Duration latency) {
+        this.latency = latency;
+    }
+
+    /**
+     * Добавить или заменить пользователя с паролем по умолчанию.
+     *
+     * @param username - username
+     * @return данные пользователя
+     */
+    public UserTo addUser(final String username) {
+        return addUser(username, DEFAULT_PASSWORD);
+    }
+
+    /**
+     * Добавить или заменить пользователя, например чтобы сменить ему пароль во время теста.
+     *
+     * @param username        - username
+     * @param encodedPassword - хеш пароля
+     * @return данные пользователя
+     */
+    public UserTo addUser(final String username,
+                          final String encodedPassword) {
+        UserTo user = UserTo.builder()
+            .id(UUID.randomUUID())
+            .username(username)
+            .password(encodedPassword)
+            .role(UserRole.USER)
+            .build();
+        users.put(username, user);
+        return user;
+    }
+
+    /**
+     * Удалить пользователя.
+     *
+     * @param username - username
+     */
+    public void removeUser(final String username) {
+        users.remove(username);
+    }
+
+    /**
+     * Найти пользователя после задержки.
+     *
+     * @param username - username
+     * @return данные пользователя или null, если пользователя нет
+     */
+    public UserTo findUserByUsername(final String username) {
+        calls.increment();
+        if (!latency.isZero()) {
+            LockSupport.parkNanos(latency.toNanos());
+        }
+
+        return users.get(username);
+    }
+
+    /**
+     * Получить количество вызовов.
+     *
+     * @return количество вызовов
+     */
+    public long getCallCount() {
+        return calls.sum();
+    }
+}
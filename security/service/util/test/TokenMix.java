@@ -0,0 +1,119 @@
+package security.service.util.test;
+
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Набор Authorization-хедеров для нагрузочных проверок в заданной пропорции:
+ * валидные, истекшие, с поддельной подписью и без токена.
+ * Хедеры создаются заранее, поэтому генерация нагрузки не тратит время на подпись токенов.
+ */
+public class TokenMix {
+    /**
+     * Вид токена в запросе.
+     */
+    public enum TokenKind {
+        /**
+         * Валидный токен.
+         */
+        VALID,
+
+        /**
+         * Токен с истекшим временем жизни.
+         */
+        EXPIRED,
+
+        /**
+         * Токен с поддельной подписью.
+         */
+        FORGED,
+
+        /**
+         * Запрос без токена.
+         */
+        MISSING
+    }
+
+    /**
+     * Виды токенов по позиции в наборе.
+     */
+    private final TokenKind[] kinds;
+
+    /**
+     * Authorization-хедеры по позиции в наборе, null для запросов без токена.
+     */
+    private final String[] headers;
+
+    /**
+     * Создать набор хедеров.
+     *
+     * @param tokenFactory - фабрика тестовых токенов
+     * @param users        - пользователи, для которых выпускаются токены
+     * @param size         - количество хедеров в наборе
+     * @param valid        - доля валидных токенов
+     * @param expired      - доля истекших токенов
+     * @param forged       - доля токенов с поддельной подписью
+     * @param missing      - доля запросов без токена
+     */
+    public TokenMix(final JwtTestTokenFactory tokenFactory,
+                    final List<? extends UserDetails> users,
+                    final int size,
+                    final int valid,
+                    final int expired,
+                    final int forged,
+                    final int missing) {
+        int total = valid + expired + forged + missing;
+        if (users.isEmpty() || size <= 0 || total <= 0) {
+            throw new IllegalArgumentException("Нужны пользователи, положительный размер и хотя бы одна доля");
+        }
+
+        this.kinds = new TokenKind[size];
+        this.headers = new String[size];
+        for (int i = 0; i < size; i++) {
+            int slot = i % total;
+            TokenKind kind = slot < valid ? TokenKind.VALID
+                : slot < valid + expired ? TokenKind.EXPIRED
+                : slot < valid + expired + forged ? TokenKind.FORGED
+                : TokenKind.MISSING;
+            UserDetails user = users.get(i % users.size());
+            kinds[i] = kind;
+            headers[i] = switch (kind) {
+                case VALID -> tokenFactory.authorizationHeader(tokenFactory.validToken(user));
+                case EXPIRED -> tokenFactory.authorizationHeader(tokenFactory.expiredToken(user));
+                case FORGED -> tokenFactory.authorizationHeader(tokenFactory.forgedToken(user));
+                case MISSING -> null;
+            };
+        }
+    }
+
+    /**
+     * Получить случайную позицию в наборе.
+     *
+     * @return позиция
+     */
+    public int nextIndex() {
+        return ThreadLocalRandom.current().nextInt(headers.length);
+    }
+
+    /**
+     * Получить вид токена по позиции.
+     *
+     * @param index - позиция
+     * @return вид токена
+     */
+    public TokenKind kind(final int index) {
+        return kinds[index];
+    }
+
+    /**
+     * Получить Authorization-хедер по позиции.
+     *
+     * @param index - позиция
+     * @return значение хедера или null для запроса без токена
+     */
+    public String header(final int index) {
+        return headers[index];
+    }
+}
@@ -0,0 +1,49 @@
+package security.service.util.test;
+
+import lombok.Value;
+
+/**
+ * Результат нагрузочной проверки кэша пользователей.
+ */
+@Value
+public class UserCacheStressResult {
+    /**
+     * Количество потоков.
+     */
+    int threads;
+
+    /**
+     * Количество различных пользователей.
+     */
+    int users;
+
+    /**
+     * Количество запросов.
+     */
+    long requests;
+
+    /**
+     * Запросов в секунду.
+     */
+    double throughput;
+
+    /**
+     * Доля попаданий в кэш.
+     */
+    double hitRatio;
+
+    /**
+     * Количество вызовов заглушки сервиса пользователей.
+     */
+    long remoteCalls;
+
+    /**
+     * Количество вытесненных записей.
+     */
+    long evictions;
+
+    /**
+     * Максимальный размер кэша, замеченный во время проверки.
+     */
+    int maxObservedSize;
+}
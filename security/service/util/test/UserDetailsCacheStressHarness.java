@@ -0,0 +1,110 @@
+package security.service.util.test;
+
+import lombok.SneakyThrows;
+import security.service.user.UserDetailsCache;
+import security.service.util.CacheCounters;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Нагрузочная проверка {@link UserDetailsCache} перед заглушкой {@link StubUserApi}.
+ * Несколько потоков одновременно запрашивают случайных пользователей; проверяются доля попаданий,
+ * количество удаленных вызовов (одновременные промахи по одному username дают один вызов)
+ * и то, что размер кэша не выходит за ограничение при вытеснении.
+ */
+public class UserDetailsCacheStressHarness {
+    /**
+     * Заглушка сервиса пользователей.
+     */
+    private final StubUserApi userApi;
+
+    /**
+     * Время жизни записи.
+     */
+    private final Duration ttl;
+
+    /**
+     * Максимальное количество записей.
+     */
+    private final int maxSize;
+
+    /**
+     * Создать проверку.
+     *
+     * @param userApi - заглушка сервиса пользователей
+     * @param ttl     - время жизни записи
+     * @param maxSize - максимальное количество записей
+     */
+    public UserDetailsCacheStressHarness(final StubUserApi userApi,
+                                         final Duration ttl,
+                                         final int maxSize) {
+        this.userApi = userApi;
+        this.ttl = ttl;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Выполнить проверку.
+     *
+     * @param threads  - количество потоков
+     * @param users    - количество различных пользователей
+     * @param duration - длительность проверки
+     * @return результат проверки
+     */
+    @SneakyThrows
+    public UserCacheStressResult run(final int threads,
+                                     final int users,
+                                     final Duration duration) {
+        String[] usernames = new String[users];
+        for (int i = 0; i < users; i++) {
+            usernames[i] = "user-" + i;
+            userApi.addUser(usernames[i]);
+        }
+
+        long callsBefore = userApi.getCallCount();
+        AtomicInteger maxObservedSize = new AtomicInteger();
+        long start = System.nanoTime();
+        long deadline = start + duration.toNanos();
+
+        List<Future<Long>> futures = new ArrayList<>(threads);
+        try (ExecutorService refreshExecutor = Executors.newFixedThreadPool(2);
+             ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+            UserDetailsCache cache = new UserDetailsCache(userApi::findUserByUsername, ttl, Duration.ZERO,
+                maxSize, refreshExecutor);
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(() -> {
+                    long requests = 0;
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    while (System.nanoTime() < deadline) {
+                        cache.get(usernames[random.nextInt(users)]);
+                        maxObservedSize.accumulateAndGet(cache.size(), Math::max);
+                        requests++;
+                    }
+
+                    return requests;
+                }));
+            }
+
+            executor.shutdown();
+            long requests = 0;
+            for (Future<Long> future : futures) {
+                requests += future.get();
+            }
+
+            long elapsed = System.nanoTime() - start;
+            CacheCounters counters = cache.getCounters();
+            long lookups = counters.getHitCount() + counters.getMissCount();
+
+            return new UserCacheStressResult(threads, users, requests, requests * 1_000_000_000.0 / elapsed,
+                lookups == 0 ? 0 : (double) counters.getHitCount() / lookups,
+                userApi.getCallCount() - callsBefore, counters.getEvictionCount(), maxObservedSize.get());
+        }
+    }
+}
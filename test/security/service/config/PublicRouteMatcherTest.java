@@ -0,0 +1,108 @@
+package security.service.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Тесты {@link PublicRouteMatcher}: публичный маршрут пропускает запрос без аутентификации,
+ * поэтому лишнее совпадение открывает защищенный путь.
+ */
+class PublicRouteMatcherTest {
+    /**
+     * Без настройки используются маршруты по умолчанию.
+     */
+    @Test
+    void usesDefaultRoutesWhenNotConfigured() {
+        PublicRouteMatcher matcher = matcher();
+
+        assertArrayEquals(SecurityRoutes.PUBLIC_ROUTES, matcher.getRoutes());
+        assertTrue(matcher.matches("/api/v1/auth/login"));
+        assertTrue(matcher.matches("/swagger-ui/index.html"));
+        assertFalse(matcher.matches("/api/v1/orders"));
+    }
+
+    /**
+     * '**' совпадает с самим префиксом и любым хвостом, но не с соседним сегментом, начинающимся так же.
+     */
+    @Test
+    void doubleWildcardMatchesWholeSegmentsOnly() {
+        PublicRouteMatcher matcher = matcher("/api/v1/auth/**");
+
+        assertTrue(matcher.matches("/api/v1/auth"));
+        assertTrue(matcher.matches("/api/v1/auth/"));
+        assertTrue(matcher.matches("/api/v1/auth/token/refresh"));
+        assertFalse(matcher.matches("/api/v1/authx"));
+        assertFalse(matcher.matches("/api/v1/authentication/secret"));
+        assertFalse(matcher.matches("/api/v1"));
+    }
+
+    /**
+     * '*' совпадает ровно с одним непустым сегментом.
+     */
+    @Test
+    void singleWildcardMatchesOneNonEmptySegment() {
+        PublicRouteMatcher matcher = matcher("/files/*/meta");
+
+        assertTrue(matcher.matches("/files/42/meta"));
+        assertFalse(matcher.matches("/files//meta"));
+        assertFalse(matcher.matches("/files/42/43/meta"));
+        assertFalse(matcher.matches("/files/42"));
+    }
+
+    /**
+     * Маршрут без шаблона совпадает только с точным путем.
+     */
+    @Test
+    void literalRouteMatchesExactPathOnly() {
+        PublicRouteMatcher matcher = matcher("/actuator/health");
+
+        assertTrue(matcher.matches("/actuator/health"));
+        assertFalse(matcher.matches("/actuator/health/"));
+        assertFalse(matcher.matches("/actuator/health/details"));
+        assertFalse(matcher.matches("/actuator"));
+    }
+
+    /**
+     * Пустой, относительный и отсутствующий путь не совпадают ни с чем.
+     */
+    @Test
+    void rejectsNonAbsolutePaths() {
+        PublicRouteMatcher matcher = matcher("/**");
+
+        assertTrue(matcher.matches("/anything"));
+        assertFalse(matcher.matches(null));
+        assertFalse(matcher.matches(""));
+        assertFalse(matcher.matches("anything"));
+    }
+
+    /**
+     * Неподдерживаемые шаблоны отклоняются при старте, а не совпадают как обычный текст.
+     */
+    @Test
+    void rejectsUnsupportedPatterns() {
+        assertThrows(IllegalStateException.class, () -> matcher("api/v1/auth/**"));
+        assertThrows(IllegalStateException.class, () -> matcher("/api/**/auth"));
+        assertThrows(IllegalStateException.class, () -> matcher("/api/v*/auth"));
+        assertThrows(IllegalStateException.class, () -> matcher("/api/{version}/auth"));
+        assertThrows(IllegalStateException.class, () -> matcher("/api/v?/auth"));
+    }
+
+    /**
+     * Создать и инициализировать проверку маршрутов.
+     *
+     * @param routes - публичные маршруты
+     * @return проверка маршрутов
+     */
+    private static PublicRouteMatcher matcher(final String... routes) {
+        PublicRouteMatcher matcher = new PublicRouteMatcher();
+        ReflectionTestUtils.setField(matcher, "routes", routes);
+        matcher.init();
+
+        return matcher;
+    }
+}
@@ -0,0 +1,223 @@
+package security.service.jwt;
+
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.UnsupportedJwtException;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Тесты {@link JwtKeyProvider}: ключ проверки подписи выбирается только по настроенному алгоритму и известному kid.
+ */
+class JwtKeyProviderTest {
+    /**
+     * Секрет HS256 в base64.
+     */
+    private static final String SECRET = Base64.getEncoder()
+        .encodeToString("0123456789abcdef0123456789abcdef".getBytes(StandardCharsets.US_ASCII));
+
+    /**
+     * Токен, подписанный текущим ключом, проверяется как с kid, так и без него.
+     */
+    @Test
+    void acceptsTokenSignedWithKnownKey() {
+        JwtKeyProvider keyProvider = hmacProvider("current");
+
+        assertEquals("user", parse(keyProvider, sign(keyProvider.getSigningKey(), SignatureAlgorithm.HS256, "current")));
+        assertEquals("user", parse(keyProvider, sign(keyProvider.getSigningKey(), SignatureAlgorithm.HS256, null)));
+    }
+
+    /**
+     * Токен с неизвестным kid отклоняется, даже если подписан известным ключом.
+     */
+    @Test
+    void rejectsUnknownKeyId() {
+        JwtKeyProvider keyProvider = hmacProvider("current");
+        String token = sign(keyProvider.getSigningKey(), SignatureAlgorithm.HS256, "retired");
+
+        assertThrows(SignatureException.class, () -> parse(keyProvider, token));
+    }
+
+    /**
+     * Токен с другим алгоритмом в заголовке отклоняется до проверки подписи.
+     */
+    @Test
+    void rejectsForeignAlgorithm() {
+        JwtKeyProvider keyProvider = hmacProvider("current");
+        String token = sign(Keys.secretKeyFor(SignatureAlgorithm.HS512),
+            SignatureAlgorithm.HS512, "current");
+
+        assertThrows(UnsupportedJwtException.class, () -> parse(keyProvider, token));
+        assertThrows(JwtException.class, () -> parse(keyProvider, Jwts.builder().setSubject("user").compact()));
+    }
+
+    /**
+     * Токен, подписанный HMAC-ключом, не принимается сервисом, проверяющим подписи открытым ключом RSA,
+     * даже если секретом HMAC выступает сам открытый ключ.
+     */
+    @Test
+    void rejectsHmacTokenWhenAsymmetricAlgorithmConfigured() {
+        KeyPair keyPair = rsaKeyPair();
+        JwtKeyProvider keyProvider = rsaProvider("current:" + encode(keyPair.getPublic()));
+        String token = sign(Keys.hmacShaKeyFor(keyPair.getPublic().getEncoded()),
+            SignatureAlgorithm.HS256, "current");
+
+        assertThrows(UnsupportedJwtException.class, () -> parse(keyProvider, token));
+    }
+
+    /**
+     * При нескольких открытых ключах токен без kid отклоняется, а токен с kid проверяется своим ключом.
+     */
+    @Test
+    void requiresKeyIdWhenSeveralPublicKeysConfigured() {
+        KeyPair current = rsaKeyPair();
+        KeyPair previous = rsaKeyPair();
+        JwtKeyProvider keyProvider = rsaProvider(
+            "current:" + encode(current.getPublic()), "previous:" + encode(previous.getPublic()));
+
+        assertEquals("user", parse(keyProvider, sign(previous.getPrivate(), SignatureAlgorithm.RS256, "previous")));
+        assertThrows(SignatureException.class,
+            () -> parse(keyProvider, sign(current.getPrivate(), SignatureAlgorithm.RS256, null)));
+        assertThrows(JwtException.class,
+            () -> parse(keyProvider, sign(previous.getPrivate(), SignatureAlgorithm.RS256, "current")));
+    }
+
+    /**
+     * Неполная конфигурация ключей обнаруживается при старте.
+     */
+    @Test
+    void rejectsIncompleteConfiguration() {
+        assertThrows(IllegalStateException.class, () -> provider("HS256", "", "", ""));
+        assertThrows(IllegalStateException.class, () -> provider("RS256", "", "", ""));
+        assertThrows(IllegalStateException.class, () -> provider("RS256", "", "", "",
+            encode(rsaKeyPair().getPublic())));
+        assertThrows(IllegalStateException.class, () -> provider("RS256", "",
+            encode(rsaKeyPair().getPrivate()), "", "current:" + encode(rsaKeyPair().getPublic())));
+        assertThrows(IllegalStateException.class, () -> provider("none", SECRET, "", ""));
+    }
+
+    /**
+     * Создать провайдер ключей HS256.
+     *
+     * @param keyId - kid ключа подписи
+     * @return провайдер ключей
+     */
+    private static JwtKeyProvider hmacProvider(final String keyId) {
+        return provider("HS256", SECRET, "", keyId);
+    }
+
+    /**
+     * Создать провайдер ключей RS256, только проверяющий подписи.
+     *
+     * @param publicKeys - открытые ключи в формате kid:ключ
+     * @return провайдер ключей
+     */
+    private static JwtKeyProvider rsaProvider(final String... publicKeys) {
+        return provider("RS256", "", "", "", publicKeys);
+    }
+
+    /**
+     * Создать и инициализировать провайдер ключей.
+     *
+     * @param algorithm  - алгоритм подписи
+     * @param secret     - секрет HMAC в base64
+     * @param privateKey - закрытый ключ в base64
+     * @param keyId      - kid ключа подписи
+     * @param publicKeys - открытые ключи в формате kid:ключ
+     * @return провайдер ключей
+     */
+    private static JwtKeyProvider provider(final String algorithm,
+                                           final String secret,
+                                           final String privateKey,
+                                           final String keyId,
+                                           final String... publicKeys) {
+        JwtKeyProvider keyProvider = new JwtKeyProvider();
+        ReflectionTestUtils.setField(keyProvider, "algorithmName", algorithm);
+        ReflectionTestUtils.setField(keyProvider, "secret", secret);
+        ReflectionTestUtils.setField(keyProvider, "privateKey", privateKey);
+        ReflectionTestUtils.setField(keyProvider, "keyId", keyId);
+        ReflectionTestUtils.setField(keyProvider, "publicKeys", publicKeys);
+        keyProvider.init();
+
+        return keyProvider;
+    }
+
+    /**
+     * Подписать токен.
+     *
+     * @param key       - ключ подписи
+     * @param algorithm - алгоритм подписи
+     * @param keyId     - kid или null
+     * @return токен
+     */
+    private static String sign(final Key key,
+                               final SignatureAlgorithm algorithm,
+                               final String keyId) {
+        JwtBuilder builder = Jwts.builder();
+        if (keyId != null) {
+            builder.setHeaderParam(JwsHeader.KEY_ID, keyId);
+        }
+
+        return builder
+            .setSubject("user")
+            .signWith(key, algorithm)
+            .compact();
+    }
+
+    /**
+     * Разобрать токен так же, как это делает {@link JwtTokenExtractor}.
+     *
+     * @param keyProvider - провайдер ключей
+     * @param token       - токен
+     * @return subject токена
+     */
+    private static String parse(final JwtKeyProvider keyProvider,
+                                final String token) {
+        return Jwts.parserBuilder()
+            .setSigningKeyResolver(keyProvider)
+            .build()
+            .parseClaimsJws(token)
+            .getBody()
+            .getSubject();
+    }
+
+    /**
+     * Сгенерировать пару ключей RSA.
+     *
+     * @return пара ключей
+     */
+    private static KeyPair rsaKeyPair() {
+        try {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+            generator.initialize(2048);
+            return generator.generateKeyPair();
+        } catch (NoSuchAlgorithmException exception) {
+            throw new IllegalStateException(exception);
+        }
+    }
+
+    /**
+     * Закодировать ключ в base64.
+     *
+     * @param key - ключ
+     * @return ключ в base64
+     */
+    private static String encode(final Key key) {
+        return Base64.getEncoder().encodeToString(key.getEncoded());
+    }
+}
@@ -0,0 +1,136 @@
+package security.service.jwt;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Тесты {@link JwtTokenPreValidator}: токены, отклоненные здесь, не доходят до разбора и проверки подписи,
+ * поэтому проверка не должна пропускать токены с чужим алгоритмом и не должна отклонять корректные токены.
+ */
+class JwtTokenPreValidatorTest {
+    /**
+     * Секрет HS256 в base64.
+     */
+    private static final String SECRET = Base64.getEncoder()
+        .encodeToString("0123456789abcdef0123456789abcdef".getBytes(StandardCharsets.US_ASCII));
+
+    /**
+     * Класс, хранящий ключи для подписи токенов.
+     */
+    private JwtKeyProvider keyProvider;
+
+    /**
+     * Проверяемый класс.
+     */
+    private JwtTokenPreValidator preValidator;
+
+    /**
+     * Создать проверку с ключом HS256.
+     */
+    @BeforeEach
+    void setUp() {
+        keyProvider = new JwtKeyProvider();
+        ReflectionTestUtils.setField(keyProvider, "algorithmName", "HS256");
+        ReflectionTestUtils.setField(keyProvider, "secret", SECRET);
+        ReflectionTestUtils.setField(keyProvider, "privateKey", "");
+        ReflectionTestUtils.setField(keyProvider, "keyId", "");
+        ReflectionTestUtils.setField(keyProvider, "publicKeys", new String[0]);
+        keyProvider.init();
+
+        preValidator = new JwtTokenPreValidator(keyProvider);
+        ReflectionTestUtils.setField(preValidator, "maxTokenLength", 8192);
+    }
+
+    /**
+     * Подписанный настроенным алгоритмом токен проходит проверку.
+     */
+    @Test
+    void acceptsTokenSignedWithConfiguredAlgorithm() {
+        String token = Jwts.builder()
+            .setSubject("user")
+            .signWith(keyProvider.getSigningKey(), keyProvider.getAlgorithm())
+            .compact();
+
+        assertTrue(preValidator.isWellFormed(token));
+        assertTrue(preValidator.isWellFormed(token("{\"alg\":\"HS256\",\"typ\":\"jwt\"}")));
+        assertTrue(preValidator.isWellFormed(token("{ \"alg\" : \"HS256\" }")));
+    }
+
+    /**
+     * Токен с другим алгоритмом в заголовке, в том числе none, отклоняется.
+     */
+    @Test
+    void rejectsForeignAlgorithm() {
+        String hs512Token = Jwts.builder()
+            .setSubject("user")
+            .signWith(Keys.secretKeyFor(SignatureAlgorithm.HS512), SignatureAlgorithm.HS512)
+            .compact();
+
+        assertFalse(preValidator.isWellFormed(hs512Token));
+        assertFalse(preValidator.isWellFormed(token("{\"alg\":\"none\"}")));
+        assertFalse(preValidator.isWellFormed(token("{\"typ\":\"JWT\"}")));
+        assertFalse(preValidator.isWellFormed(token("{\"alg\":\"HS256\",\"typ\":\"at+jwt\"}")));
+    }
+
+    /**
+     * Токен, не состоящий из трех непустых base64url-частей, отклоняется.
+     */
+    @Test
+    void rejectsMalformedStructure() {
+        String header = encode("{\"alg\":\"HS256\"}");
+
+        assertFalse(preValidator.isWellFormed(""));
+        assertFalse(preValidator.isWellFormed(header));
+        assertFalse(preValidator.isWellFormed(header + ".e30"));
+        assertFalse(preValidator.isWellFormed(header + ".e30."));
+        assertFalse(preValidator.isWellFormed(header + "..c2ln"));
+        assertFalse(preValidator.isWellFormed(".e30.c2ln"));
+        assertFalse(preValidator.isWellFormed(header + ".e30.c2ln.c2ln"));
+        assertFalse(preValidator.isWellFormed(header + ".e30=.c2ln"));
+        assertFalse(preValidator.isWellFormed(header + ".e3+0.c2ln"));
+        assertFalse(preValidator.isWellFormed("e30x.e30.c2ln"));
+    }
+
+    /**
+     * Слишком длинный токен и слишком большой заголовок отклоняются до декодирования.
+     */
+    @Test
+    void rejectsOversizedToken() {
+        String token = token("{\"alg\":\"HS256\"}");
+        ReflectionTestUtils.setField(preValidator, "maxTokenLength", token.length() - 1);
+        assertFalse(preValidator.isWellFormed(token));
+
+        ReflectionTestUtils.setField(preValidator, "maxTokenLength", 8192);
+        assertFalse(preValidator.isWellFormed(token("{\"alg\":\"HS256\",\"pad\":\"" + "x".repeat(600) + "\"}")));
+    }
+
+    /**
+     * Собрать токен с заданным заголовком и произвольной подписью.
+     *
+     * @param header - заголовок в JSON
+     * @return токен
+     */
+    private static String token(final String header) {
+        return encode(header) + "." + encode("{\"sub\":\"user\"}") + ".c2lnbmF0dXJl";
+    }
+
+    /**
+     * Закодировать строку в base64url без дополнения.
+     *
+     * @param value - строка
+     * @return закодированная строка
+     */
+    private static String encode(final String value) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
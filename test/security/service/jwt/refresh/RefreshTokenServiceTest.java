@@ -0,0 +1,147 @@
+package security.service.jwt.refresh;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.util.ReflectionTestUtils;
+import security.service.UserDetailsServiceImpl;
+import security.service.jwt.JwtTokenGenerator;
+import security.service.util.SecurityTaskScheduler;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Тесты {@link RefreshTokenService}: каждый refresh-токен принимается один раз,
+ * а повторное предъявление уже использованного токена отзывает всю цепочку.
+ */
+class RefreshTokenServiceTest {
+    /**
+     * Класс для получения данных о пользователях.
+     */
+    private UserDetailsServiceImpl userDetailsService;
+
+    /**
+     * Загрузка пользователей в обход кэша.
+     */
+    private UserDetailsService uncachedUserDetailsService;
+
+    /**
+     * Проверяемый сервис.
+     */
+    private RefreshTokenService refreshTokenService;
+
+    /**
+     * Создать сервис с хранилищем в памяти.
+     */
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        ObjectProvider<RefreshTokenStore> storeProvider = mock(ObjectProvider.class);
+        when(storeProvider.getIfAvailable(any())).thenReturn(new InMemoryRefreshTokenStore());
+
+        JwtTokenGenerator tokenGenerator = mock(JwtTokenGenerator.class);
+        when(tokenGenerator.generate(any())).thenReturn("access-token");
+
+        userDetailsService = mock(UserDetailsServiceImpl.class);
+        uncachedUserDetailsService = mock(UserDetailsService.class);
+        when(userDetailsService.uncached()).thenReturn(uncachedUserDetailsService);
+        when(uncachedUserDetailsService.loadUserByUsername("user")).thenReturn(user(false));
+
+        refreshTokenService = new RefreshTokenService(storeProvider, tokenGenerator, userDetailsService,
+            mock(SecurityTaskScheduler.class));
+        ReflectionTestUtils.setField(refreshTokenService, "expirationTimeSeconds", 3600L);
+        ReflectionTestUtils.setField(refreshTokenService, "cleanupIntervalSeconds", 300L);
+        refreshTokenService.init();
+    }
+
+    /**
+     * Обновление выдает новый refresh-токен, срок которого не выходит за срок цепочки.
+     */
+    @Test
+    void rotatesRefreshToken() {
+        TokenPair issued = refreshTokenService.issue(user(false));
+        TokenPair refreshed = refreshTokenService.refresh(issued.getRefreshToken());
+
+        assertEquals("access-token", refreshed.getAccessToken());
+        assertNotEquals(issued.getRefreshToken(), refreshed.getRefreshToken());
+        assertTrue(refreshed.getRefreshTokenExpiresAtMillis() <= issued.getRefreshTokenExpiresAtMillis());
+    }
+
+    /**
+     * Повторное предъявление использованного токена отклоняется и отзывает токены, выданные после него.
+     */
+    @Test
+    void reuseRevokesWholeFamily() {
+        TokenPair issued = refreshTokenService.issue(user(false));
+        TokenPair refreshed = refreshTokenService.refresh(issued.getRefreshToken());
+
+        assertThrows(InvalidRefreshTokenException.class, () -> refreshTokenService.refresh(issued.getRefreshToken()));
+        assertThrows(InvalidRefreshTokenException.class,
+            () -> refreshTokenService.refresh(refreshed.getRefreshToken()));
+    }
+
+    /**
+     * Отзыв одной цепочки не затрагивает другие сессии пользователя.
+     */
+    @Test
+    void reuseDoesNotRevokeOtherFamilies() {
+        TokenPair stolen = refreshTokenService.issue(user(false));
+        TokenPair otherSession = refreshTokenService.issue(user(false));
+        refreshTokenService.refresh(stolen.getRefreshToken());
+
+        assertThrows(InvalidRefreshTokenException.class, () -> refreshTokenService.refresh(stolen.getRefreshToken()));
+        assertEquals("access-token", refreshTokenService.refresh(otherSession.getRefreshToken()).getAccessToken());
+    }
+
+    /**
+     * Отозванный и неизвестный токены не принимаются.
+     */
+    @Test
+    void rejectsRevokedAndUnknownTokens() {
+        TokenPair issued = refreshTokenService.issue(user(false));
+        refreshTokenService.revoke(issued.getRefreshToken());
+
+        assertThrows(InvalidRefreshTokenException.class, () -> refreshTokenService.refresh(issued.getRefreshToken()));
+        assertThrows(InvalidRefreshTokenException.class, () -> refreshTokenService.refresh("unknown"));
+    }
+
+    /**
+     * Состояние пользователя проверяется в обход кэша, и заблокированный пользователь теряет всю цепочку.
+     */
+    @Test
+    void checksUserStateBypassingCache() {
+        TokenPair issued = refreshTokenService.issue(user(false));
+        when(uncachedUserDetailsService.loadUserByUsername("user")).thenReturn(user(true));
+
+        assertThrows(InvalidRefreshTokenException.class, () -> refreshTokenService.refresh(issued.getRefreshToken()));
+        verify(userDetailsService, never()).loadUserByUsername(any());
+
+        when(uncachedUserDetailsService.loadUserByUsername("user")).thenReturn(user(false));
+        assertThrows(InvalidRefreshTokenException.class, () -> refreshTokenService.refresh(issued.getRefreshToken()));
+    }
+
+    /**
+     * Создать пользователя.
+     *
+     * @param locked - заблокирован ли пользователь
+     * @return данные пользователя
+     */
+    private static UserDetails user(final boolean locked) {
+        return User.withUsername("user")
+            .password("password")
+            .roles("USER")
+            .accountLocked(locked)
+            .build();
+    }
+}
@@ -0,0 +1,102 @@
+package security.service.login;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Тесты {@link KeyedRateLimiter}: ключ получает не больше capacity разрешений подряд,
+ * а переполненная таблица ключей отклоняет новые ключи, а не пропускает их без ограничения.
+ */
+class KeyedRateLimiterTest {
+    /**
+     * Подряд выдается ровно capacity разрешений, следующее ждет одного интервала восстановления.
+     */
+    @Test
+    void allowsBurstUpToCapacity() {
+        KeyedRateLimiter limiter = new KeyedRateLimiter(5, 60, 100);
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, limiter.tryAcquire("user"));
+        }
+
+        long waitNanos = limiter.tryAcquire("user");
+        assertTrue(waitNanos > 0);
+        assertTrue(waitNanos <= TimeUnit.SECONDS.toNanos(12));
+    }
+
+    /**
+     * Исчерпание ведра одного ключа не влияет на другие ключи.
+     */
+    @Test
+    void limitsKeysIndependently() {
+        KeyedRateLimiter limiter = new KeyedRateLimiter(1, 60, 100);
+
+        assertEquals(0, limiter.tryAcquire("first"));
+        assertTrue(limiter.tryAcquire("first") > 0);
+        assertEquals(0, limiter.tryAcquire("second"));
+    }
+
+    /**
+     * Отклоненные попытки не продлевают ожидание: ведро восстанавливается по времени, а не по числу попыток.
+     */
+    @Test
+    void rejectedAttemptsDoNotConsumePermits() {
+        KeyedRateLimiter limiter = new KeyedRateLimiter(1, 60, 100);
+        limiter.tryAcquire("user");
+
+        long firstWait = limiter.tryAcquire("user");
+        for (int i = 0; i < 100; i++) {
+            limiter.tryAcquire("user");
+        }
+
+        assertTrue(limiter.tryAcquire("user") <= firstWait);
+    }
+
+    /**
+     * Когда таблица заполнена активными ключами, новый ключ отклоняется, а размер таблицы не растет.
+     */
+    @Test
+    void rejectsNewKeysWhenTableIsFullOfActiveKeys() {
+        KeyedRateLimiter limiter = new KeyedRateLimiter(5, 60, 2);
+        limiter.tryAcquire("first");
+        limiter.tryAcquire("second");
+
+        assertTrue(limiter.tryAcquire("third") > 0);
+        assertEquals(2, limiter.size());
+        assertEquals(0, limiter.tryAcquire("first"));
+    }
+
+    /**
+     * Восстановившиеся ключи освобождают место в заполненной таблице.
+     *
+     * @throws InterruptedException - если ожидание прервано
+     */
+    @Test
+    void evictsIdleKeysToMakeRoom() throws InterruptedException {
+        KeyedRateLimiter limiter = new KeyedRateLimiter(1000, 1, 2);
+        limiter.tryAcquire("first");
+        limiter.tryAcquire("second");
+        Thread.sleep(20);
+
+        assertEquals(0, limiter.tryAcquire("third"));
+        assertTrue(limiter.size() <= 2);
+
+        Thread.sleep(20);
+        limiter.evictIdle();
+        assertEquals(0, limiter.size());
+    }
+
+    /**
+     * Неположительные настройки отклоняются при создании.
+     */
+    @Test
+    void rejectsNonPositiveSettings() {
+        assertThrows(IllegalArgumentException.class, () -> new KeyedRateLimiter(0, 60, 100));
+        assertThrows(IllegalArgumentException.class, () -> new KeyedRateLimiter(5, 0, 100));
+        assertThrows(IllegalArgumentException.class, () -> new KeyedRateLimiter(5, 60, 0));
+    }
+}